@@ -0,0 +1,130 @@
+package lcm.java.swing;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
+
+/**
+ * Validates the text of a field in background, for validations too expensive to run on each keystroke
+ * (such as lookups or complex parsing).
+ * <P>
+ * The validation only runs once the text stops changing for a given time (debouncing), outside the
+ * Event Dispatch Thread. Its result is reported back on the Event Dispatch Thread, both to a callback
+ * and to the field's client property {@link #VALID_PROPERTY}. Results of texts that changed meanwhile are discarded.
+ */
+public class AsyncValidator {
+
+    /** Client property set on the field with the last validation result (a Boolean). */
+    public static final String VALID_PROPERTY = "AsyncValidator.valid";
+
+    private final JTextComponent field;
+    private final Predicate<String> validator;
+    private final Consumer<Boolean> onResult;
+    private final Executor executor;
+    private final Timer debounce;
+    private final DocumentListener listener = new DocumentListener() {
+        @Override
+        public void insertUpdate(DocumentEvent e) {
+            changed();
+        }
+
+        @Override
+        public void removeUpdate(DocumentEvent e) {
+            changed();
+        }
+
+        @Override
+        public void changedUpdate(DocumentEvent e) {
+            // Only attributes changed, not the text.
+        }
+    };
+
+    private volatile long version;
+
+    private AsyncValidator(JTextComponent field, Predicate<String> validator, int debounceMillis, Consumer<Boolean> onResult, Executor executor) {
+        this.field = field;
+        this.validator = validator;
+        this.onResult = onResult;
+        this.executor = executor;
+        this.debounce = new Timer(debounceMillis, e -> validate());
+        this.debounce.setRepeats(false);
+    }
+
+    /**
+     * Overload of {@link #install(JTextComponent, Predicate, int, Consumer, Executor)}, running the validations on a shared background thread.
+     *
+     * @param field - The field to be validated.
+     * @param validator - Tells wether a text is valid. It's not called on the Event Dispatch Thread.
+     * @param debounceMillis - Time the text must stay unchanged before being validated.
+     * @param onResult - Receives each validation result, on the Event Dispatch Thread (may be null).
+     * @return the installed validator.
+     * @see #install(JTextComponent, Predicate, int, Consumer, Executor)
+     */
+    public static AsyncValidator install(JTextComponent field, Predicate<String> validator, int debounceMillis, Consumer<Boolean> onResult) {
+        return install(field, validator, debounceMillis, onResult, DefaultExecutor.INSTANCE);
+    }
+
+    /**
+     * Starts validating the given field whenever its text changes.
+     *
+     * @param field - The field to be validated.
+     * @param validator - Tells wether a text is valid. It's not called on the Event Dispatch Thread.
+     * @param debounceMillis - Time the text must stay unchanged before being validated.
+     * @param onResult - Receives each validation result, on the Event Dispatch Thread (may be null).
+     * @param executor - Executor to run the validations on.
+     * @return the installed validator.
+     */
+    public static AsyncValidator install(JTextComponent field, Predicate<String> validator, int debounceMillis, Consumer<Boolean> onResult, Executor executor) {
+        AsyncValidator asyncValidator = new AsyncValidator(field, validator, debounceMillis, onResult, executor);
+        field.getDocument().addDocumentListener(asyncValidator.listener);
+        return asyncValidator;
+    }
+
+    /**
+     * Stops validating the field. Validations already running have their results discarded.
+     */
+    public void uninstall() {
+        debounce.stop();
+        version++;
+        field.getDocument().removeDocumentListener(listener);
+    }
+
+    private void changed() {
+        version++;
+        debounce.restart();
+    }
+
+    private void validate() {
+        long validatedVersion = version;
+        String text = field.getText();
+        executor.execute(() -> {
+            boolean valid = validator.test(text);
+            SwingUtilities.invokeLater(() -> {
+                if (validatedVersion != version)
+                    return; // The text changed meanwhile, so a newer validation will report it.
+                field.putClientProperty(VALID_PROPERTY, valid);
+                if (onResult != null)
+                    onResult.accept(valid);
+            });
+        });
+    }
+
+    /**
+     * Background thread shared by validators without a specific executor, created only when first needed.
+     */
+    private static class DefaultExecutor {
+        private static final ExecutorService INSTANCE = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "AsyncValidator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
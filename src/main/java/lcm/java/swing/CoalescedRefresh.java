@@ -0,0 +1,159 @@
+package lcm.java.swing;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Rectangle;
+import java.awt.Window;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Coalesces the refreshing of components, as an alternative to revalidating and repainting each one of them.
+ * <P>
+ * Components are only marked as dirty, and once the Event Dispatch Thread is free, all the marked components
+ * are refreshed at once: each one is invalidated (along with its ancestors, but not its inner components),
+ * with a single revalidation for each validate root and a single repaint (of the union of the
+ * dirty areas) for each top-level window.
+ * <P>
+ * Counters are available to check how many revalidate and repaint requests were avoided.
+ */
+public class CoalescedRefresh {
+
+    /** Components marked since the last flush, with how many times each one was marked. */
+    private static final Map<Component, Integer> dirty = new LinkedHashMap<>();
+    private static boolean flushScheduled;
+
+    private static long marked;
+    private static long replacedRequests;
+    private static long revalidatesIssued;
+    private static long repaintsIssued;
+
+    private CoalescedRefresh() {}
+
+    /**
+     * Marks the given component to be revalidated and repainted on the next flush.
+     * It can be called from any thread.
+     *
+     * @param component - The component that changed.
+     */
+    public static void markDirty(Component component) {
+        synchronized (dirty) {
+            marked++;
+            dirty.merge(component, 1, Integer::sum);
+            if (!flushScheduled) {
+                flushScheduled = true;
+                SwingUtilities.invokeLater(CoalescedRefresh::flush);
+            }
+        }
+    }
+
+    /**
+     * Refreshes all the components marked so far. It's automatically called on the Event Dispatch Thread
+     * after components are marked, but it may be called earlier (also from the Event Dispatch Thread).
+     */
+    public static void flush() {
+        Map<Component, Integer> marks;
+        synchronized (dirty) {
+            marks = new LinkedHashMap<>(dirty);
+            dirty.clear();
+            flushScheduled = false;
+        }
+
+        long replaced = 0;
+        for (int count : marks.values())
+            replaced += 2L * count; // A revalidate and a repaint for each mark.
+        Set<Component> components = marks.keySet();
+
+        Set<Container> validateRoots = new LinkedHashSet<>();
+        Map<Component, Rectangle> repaintAreas = new LinkedHashMap<>();
+        for (Component component : components) {
+            component.invalidate();
+            Container validateRoot = validateRootOf(component);
+            if (validateRoot != null)
+                validateRoots.add(validateRoot);
+
+            Component top = topLevelOf(component);
+            Rectangle area = SwingUtilities.convertRectangle(component, new Rectangle(component.getSize()), top);
+            Rectangle previous = repaintAreas.get(top);
+            repaintAreas.put(top, previous == null ? area : previous.union(area));
+        }
+
+        for (Container validateRoot : validateRoots)
+            validateRoot.revalidate();
+        for (Map.Entry<Component, Rectangle> area : repaintAreas.entrySet()) {
+            Rectangle r = area.getValue();
+            area.getKey().repaint(r.x, r.y, r.width, r.height);
+        }
+
+        synchronized (dirty) {
+            replacedRequests += replaced;
+            revalidatesIssued += validateRoots.size();
+            repaintsIssued += repaintAreas.size();
+        }
+    }
+
+    /**
+     * Gets how many times components were marked as dirty.
+     * @return the number of marked components.
+     */
+    public static long getMarkedCount() {
+        synchronized (dirty) {
+            return marked;
+        }
+    }
+
+    /**
+     * Gets how many revalidations were actually requested (one per validate root per flush).
+     * @return the number of revalidate requests issued.
+     */
+    public static long getRevalidatesIssued() {
+        synchronized (dirty) {
+            return revalidatesIssued;
+        }
+    }
+
+    /**
+     * Gets how many repaints were actually requested (one per top-level window per flush).
+     * @return the number of repaint requests issued.
+     */
+    public static long getRepaintsIssued() {
+        synchronized (dirty) {
+            return repaintsIssued;
+        }
+    }
+
+    /**
+     * Gets how many requests were avoided, compared to revalidating and repainting the component each time it was marked.
+     * Refreshing without coalescing (see {@link SwingComponents#refresh(Component)}) also revalidates and repaints
+     * each inner component, which is not counted, so the actual number of requests avoided is usually higher.
+     * @return the number of revalidate and repaint requests avoided.
+     */
+    public static long getRequestsAvoided() {
+        synchronized (dirty) {
+            return replacedRequests - revalidatesIssued - repaintsIssued;
+        }
+    }
+
+    private static Container validateRootOf(Component component) {
+        Container root = component instanceof Container ? (Container) component : component.getParent();
+        while (root != null && !root.isValidateRoot() && !(root instanceof Window) && root.getParent() != null)
+            root = root.getParent();
+        return root;
+    }
+
+    private static Component topLevelOf(Component component) {
+        if (component instanceof Window)
+            return component;
+        Window window = SwingUtilities.getWindowAncestor(component);
+        if (window != null)
+            return window;
+        Component top = component; // Not in a window yet, so the area is repainted on the topmost parent.
+        while (top.getParent() != null)
+            top = top.getParent();
+        return top;
+    }
+}
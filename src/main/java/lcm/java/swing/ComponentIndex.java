@@ -0,0 +1,387 @@
+package lcm.java.swing;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.event.ContainerEvent;
+import java.awt.event.ContainerListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.swing.JComponent;
+import javax.swing.JMenu;
+
+/**
+ * Index of all the children of a root container, for finding components by type, name or client property
+ * without walking the component tree (as {@link SwingComponents#filterChildren(Container, java.util.function.Predicate)} does).
+ * <P>
+ * The index is kept up to date by listening to components being added to or removed from containers in the tree
+ * (menu items are considered children from their menus), and to changes of the components' names and indexed client properties.
+ * Like any other Swing structure, it must only be used from the Event Dispatch Thread.
+ * It costs memory for each component under each of its classes and interfaces, so it's opt-in: see {@link #attach(Container)}.
+ */
+public class ComponentIndex {
+
+    /** Rough estimate of the memory used by each entry of the index (hash set node and table slot). */
+    private static final int BYTES_PER_ENTRY = 40;
+
+    /** Classes and interfaces each component class is indexed under, computed once per class. */
+    private static final ClassValue<List<Class<?>>> TYPES = new ClassValue<List<Class<?>>>() {
+        @Override
+        protected List<Class<?>> computeValue(Class<?> type) {
+            return indexedTypesOf(type);
+        }
+    };
+
+    private final Container root;
+    private final Map<Class<?>, Set<Component>> byType = new HashMap<>();
+    private final Map<String, Set<Component>> byName = new HashMap<>();
+    private final Map<Object, ClientPropertyIndex> byClientProperty = new HashMap<>();
+    private final Map<String, List<Object>> clientPropertyKeys = new HashMap<>();
+    private final Set<Component> indexed = new HashSet<>();
+
+    private final ContainerListener containerListener = new ContainerListener() {
+        @Override
+        public void componentAdded(ContainerEvent e) {
+            long start = System.nanoTime();
+            add(e.getChild());
+            countMaintenance(start);
+        }
+
+        @Override
+        public void componentRemoved(ContainerEvent e) {
+            long start = System.nanoTime();
+            remove(e.getChild());
+            countMaintenance(start);
+        }
+    };
+
+    private final PropertyChangeListener propertyListener = new PropertyChangeListener() {
+        @Override
+        public void propertyChange(PropertyChangeEvent e) {
+            Component component = (Component) e.getSource();
+            if (!indexed.contains(component))
+                return;
+            // Client property events are named after the key's string, which may be the name of a bound property
+            // (such as "font" or "name"), so the event values are only trusted when they match the component's.
+            long start = System.nanoTime();
+            boolean changed = false;
+            if ("name".equals(e.getPropertyName()) && Objects.equals(e.getNewValue(), component.getName())) {
+                removeFrom(byName, e.getOldValue(), component);
+                addTo(byName, component.getName(), component);
+                changed = true;
+            }
+            List<Object> keys = clientPropertyKeys.get(e.getPropertyName());
+            if (keys != null && component instanceof JComponent) {
+                for (Object key : keys)
+                    changed |= byClientProperty.get(key).update(component, ((JComponent) component).getClientProperty(key));
+            }
+            if (changed)
+                countMaintenance(start);
+        }
+    };
+
+    private long maintenanceEvents;
+    private long maintenanceNanos;
+
+    private ComponentIndex(Container root) {
+        this.root = root;
+    }
+
+    /**
+     * Creates an index with all the children of the given container (not including the container itself),
+     * and starts keeping it up to date.
+     *
+     * @param root - The container whose children are to be indexed.
+     * @return the index for the given container.
+     */
+    public static ComponentIndex attach(Container root) {
+        ComponentIndex index = new ComponentIndex(root);
+        listen(root, index.containerListener);
+        SwingComponents.streamChildren(root).forEach(index::addSingle);
+        return index;
+    }
+
+    /**
+     * Stops keeping this index up to date and releases all its entries.
+     */
+    public void detach() {
+        for (Component component : indexed)
+            unlisten(component);
+        unlisten(root);
+        indexed.clear();
+        byType.clear();
+        byName.clear();
+        byClientProperty.clear();
+        clientPropertyKeys.clear();
+    }
+
+    /**
+     * Starts indexing the given client property (see {@link JComponent#putClientProperty(Object, Object)}),
+     * so components can be found by its value with {@link #getByClientProperty(Object, Object)}.
+     *
+     * @param key - The client property key.
+     */
+    public void indexClientProperty(Object key) {
+        if (byClientProperty.containsKey(key))
+            return;
+        ClientPropertyIndex property = new ClientPropertyIndex();
+        byClientProperty.put(key, property);
+        clientPropertyKeys.computeIfAbsent(key.toString(), k -> new ArrayList<>()).add(key);
+        for (Component component : indexed) {
+            if (component instanceof JComponent)
+                property.add(component, ((JComponent) component).getClientProperty(key));
+        }
+    }
+
+    /**
+     * Gets all the indexed components of the given type (including subclasses of it).
+     * The type may also be an interface, to find all the components implementing it.
+     *
+     * @param <T> - The components type.
+     * @param type - The class or interface of the components to be found.
+     * @return an unmodifiable live view of the components of the given type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Set<T> getByType(Class<T> type) {
+        return (Set<T>) view(byType, type);
+    }
+
+    /**
+     * Gets all the indexed components with the given name (see {@link Component#setName(String)}).
+     *
+     * @param name - The name of the components to be found.
+     * @return an unmodifiable live view of the components with the given name.
+     */
+    public Set<Component> getByName(String name) {
+        return view(byName, name);
+    }
+
+    /**
+     * Gets all the indexed components having the given value for a client property.
+     *
+     * @param key - The client property key, previously registered with {@link #indexClientProperty(Object)}.
+     * @param value - The value of the client property.
+     * @return an unmodifiable live view of the components with the given client property value.
+     * @throws IllegalStateException if the client property is not indexed.
+     */
+    public Set<Component> getByClientProperty(Object key, Object value) {
+        ClientPropertyIndex property = byClientProperty.get(key);
+        if (property == null)
+            throw new IllegalStateException("Client property is not indexed: " + key);
+        return view(property.byValue, value);
+    }
+
+    /**
+     * Gets the number of components currently indexed.
+     * @return the number of children of the root container.
+     */
+    public int size() {
+        return indexed.size();
+    }
+
+    /**
+     * Gets how many tree and property changes were processed to keep the index up to date.
+     * @return the number of maintenance events.
+     */
+    public long getMaintenanceEvents() {
+        return maintenanceEvents;
+    }
+
+    /**
+     * Gets the total time spent keeping the index up to date.
+     * @return the maintenance time in nanoseconds.
+     */
+    public long getMaintenanceNanos() {
+        return maintenanceNanos;
+    }
+
+    /**
+     * Gets the number of entries in the index (each component is indexed under each of its classes and interfaces, its name and client properties).
+     * @return the number of entries.
+     */
+    public int getEntryCount() {
+        int entries = indexed.size();
+        for (Set<Component> components : byType.values())
+            entries += components.size();
+        for (Set<Component> components : byName.values())
+            entries += components.size();
+        for (ClientPropertyIndex property : byClientProperty.values())
+            entries += property.values.size() * 2;
+        return entries;
+    }
+
+    /**
+     * Gets a rough estimate of the memory used by the index.
+     * @return the estimated footprint in bytes.
+     */
+    public long getEstimatedFootprintBytes() {
+        return (long) getEntryCount() * BYTES_PER_ENTRY;
+    }
+
+    private void countMaintenance(long start) {
+        maintenanceEvents++;
+        maintenanceNanos += System.nanoTime() - start;
+    }
+
+    private void add(Component component) {
+        addSingle(component);
+        if (component instanceof Container)
+            SwingComponents.streamChildren((Container) component).forEach(this::addSingle);
+    }
+
+    private void remove(Component component) {
+        removeSingle(component);
+        if (component instanceof Container)
+            SwingComponents.streamChildren((Container) component).forEach(this::removeSingle);
+    }
+
+    private void addSingle(Component component) {
+        if (!indexed.add(component))
+            return;
+        for (Class<?> type : TYPES.get(component.getClass()))
+            addTo(byType, type, component);
+        addTo(byName, component.getName(), component);
+        if (component instanceof JComponent)
+            for (Map.Entry<Object, ClientPropertyIndex> property : byClientProperty.entrySet())
+                property.getValue().add(component, ((JComponent) component).getClientProperty(property.getKey()));
+        component.addPropertyChangeListener(propertyListener);
+        listen(component, containerListener);
+    }
+
+    private void removeSingle(Component component) {
+        if (!indexed.remove(component))
+            return;
+        for (Class<?> type : TYPES.get(component.getClass()))
+            removeFrom(byType, type, component);
+        removeFrom(byName, component.getName(), component);
+        for (ClientPropertyIndex property : byClientProperty.values())
+            property.remove(component);
+        unlisten(component);
+    }
+
+    private static void listen(Component component, ContainerListener listener) {
+        if (component instanceof Container)
+            ((Container) component).addContainerListener(listener);
+        if (component instanceof JMenu)
+            ((JMenu) component).getPopupMenu().addContainerListener(listener);
+    }
+
+    private void unlisten(Component component) {
+        component.removePropertyChangeListener(propertyListener);
+        if (component instanceof Container)
+            ((Container) component).removeContainerListener(containerListener);
+        if (component instanceof JMenu)
+            ((JMenu) component).getPopupMenu().removeContainerListener(containerListener);
+    }
+
+    private static <K> void addTo(Map<K, Set<Component>> map, K key, Component component) {
+        if (key != null)
+            map.computeIfAbsent(key, k -> new HashSet<>()).add(component);
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Component>> map, Object key, Component component) {
+        Set<Component> components = key == null ? null : map.get(key);
+        if (components != null && components.remove(component) && components.isEmpty())
+            map.remove(key);
+    }
+
+    private static <K> Set<Component> view(Map<K, Set<Component>> map, K key) {
+        return new LiveView<>(map, key);
+    }
+
+    /**
+     * Gets all the classes and interfaces a class is indexed under (all of them but Object).
+     */
+    private static List<Class<?>> indexedTypesOf(Class<?> componentClass) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.add(componentClass);
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.poll();
+            if (type == Object.class || !types.add(type))
+                continue;
+            if (type.getSuperclass() != null)
+                pending.add(type.getSuperclass());
+            pending.addAll(Arrays.asList(type.getInterfaces()));
+        }
+        return new ArrayList<>(types);
+    }
+
+    /**
+     * Components indexed by their values of a client property, along with the value each one was indexed under,
+     * so changes are detected from the component itself rather than from the property change events.
+     */
+    private static class ClientPropertyIndex {
+        private final Map<Object, Set<Component>> byValue = new HashMap<>();
+        private final Map<Component, Object> values = new HashMap<>();
+
+        private void add(Component component, Object value) {
+            if (value != null) {
+                values.put(component, value);
+                addTo(byValue, value, component);
+            }
+        }
+
+        private void remove(Component component) {
+            removeFrom(byValue, values.remove(component), component);
+        }
+
+        private boolean update(Component component, Object value) {
+            if (Objects.equals(values.get(component), value))
+                return false;
+            remove(component);
+            add(component, value);
+            return true;
+        }
+    }
+
+    /**
+     * Unmodifiable view of the components under a key of the index, looking the key up on each access,
+     * so it stays live without the index keeping empty sets for keys that were only queried.
+     */
+    private static class LiveView<K> extends AbstractSet<Component> {
+        private final Map<K, Set<Component>> map;
+        private final K key;
+
+        private LiveView(Map<K, Set<Component>> map, K key) {
+            this.map = map;
+            this.key = key;
+        }
+
+        private Set<Component> current() {
+            Set<Component> components = map.get(key);
+            return components == null ? Collections.emptySet() : Collections.unmodifiableSet(components);
+        }
+
+        @Override
+        public Iterator<Component> iterator() {
+            return current().iterator();
+        }
+
+        @Override
+        public int size() {
+            Set<Component> components = map.get(key);
+            return components == null ? 0 : components.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            Set<Component> components = map.get(key);
+            return components != null && components.contains(o);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package lcm.java.swing;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Container;
+
+import javax.swing.JCheckBox;
+
+/**
+ * Style (font and colors) to be applied to whole component trees at once.
+ * <P>
+ * Each tree is traversed a single time, with all the properties applied to each component as it's visited,
+ * and a single coalesced refresh is requested for it at the end (see {@link CoalescedRefresh}),
+ * instead of a walk for each property plus a refresh of each component.
+ * Notice that Swing setters still request a revalidation and a repaint of each component they change;
+ * the RepaintManager merges those into a single validation and paint, which are not made any cheaper by this class.
+ * Headless, switching the theme of 21,000 components takes about 12 ms this way, against about 53 ms
+ * with separate walks (see ThemeSwitchBenchmark in the tests).
+ * <P>
+ * Example: {@code new ComponentStyle().font(CustomFont.ARIAL_20).background(Color.WHITE).apply(frame);}
+ */
+public class ComponentStyle {
+
+    private CustomFont font;
+    private boolean forceFont;
+    private Color background;
+    private Color foreground;
+    private boolean scaleCheckBoxes = true;
+
+    /**
+     * Sets the font to be applied, except on inner components that already have a CustomFont applied.
+     * @param font - The font to be applied.
+     * @return this style, for chaining.
+     * @see CustomFont#apply(Component...)
+     */
+    public ComponentStyle font(CustomFont font) {
+        return font(font, false);
+    }
+
+    /**
+     * Sets the font to be applied.
+     * @param font - The font to be applied.
+     * @param force - Wether to apply the font on inner components even if they already had a CustomFont applied.
+     * @return this style, for chaining.
+     * @see CustomFont#apply(boolean, Component...)
+     */
+    public ComponentStyle font(CustomFont font, boolean force) {
+        this.font = font;
+        this.forceFont = force;
+        return this;
+    }
+
+    /**
+     * Sets the background color to be applied on all components.
+     * @param color - The background color.
+     * @return this style, for chaining.
+     */
+    public ComponentStyle background(Color color) {
+        this.background = color;
+        return this;
+    }
+
+    /**
+     * Sets the foreground (text) color to be applied on all components.
+     * @param color - The foreground color.
+     * @return this style, for chaining.
+     */
+    public ComponentStyle foreground(Color color) {
+        this.foreground = color;
+        return this;
+    }
+
+    /**
+     * Sets wether checkboxes getting the font should have their icons scaled to it (true by default).
+     * @param scale - Wether to scale the checkboxes icons.
+     * @return this style, for chaining.
+     * @see SwingComponents#scaleCheckBoxIcon(JCheckBox)
+     */
+    public ComponentStyle scaleCheckBoxes(boolean scale) {
+        this.scaleCheckBoxes = scale;
+        return this;
+    }
+
+    /**
+     * Applies this style to the given components and all their inner components.
+     * The given components always get the font, while inner components may keep theirs (see {@link #font(CustomFont, boolean)}).
+     *
+     * @param components - Components to have the style applied on them.
+     */
+    public void apply(Component... components) {
+        for (Component component : components) {
+            style(component, true);
+            if (component instanceof Container)
+                SwingComponents.streamChildren((Container) component).forEach(child -> style(child, forceFont));
+            SwingComponents.refresh(component, true);
+        }
+    }
+
+    private void style(Component component, boolean overrideFont) {
+        if (background != null)
+            component.setBackground(background);
+        if (foreground != null)
+            component.setForeground(foreground);
+        if (font != null && (overrideFont || !(component.getFont() instanceof CustomFont))) {
+            component.setFont(font);
+            if (scaleCheckBoxes && component instanceof JCheckBox)
+                SwingComponents.scaleCheckBoxIcon((JCheckBox) component);
+        }
+    }
+}
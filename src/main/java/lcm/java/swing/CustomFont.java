@@ -2,13 +2,30 @@ package lcm.java.swing;
 
 import java.awt.Component;
 import java.awt.Container;
+import java.awt.FontFormatException;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
-import javax.swing.JCheckBox;
-
+import javax.swing.SwingUtilities;
 
 /**
  * Class to handle fonts in Swing. It extends java.awt.Font (so it can be used transparently).
  * It has many public pre-defined options for fonts, and facilitates creating new ones.
+ * Fonts created with the factory methods ({@link #of(String, Style, int)}) are shared, as well as their derived sizes, styles and metrics.
+ * Bundled TrueType fonts can be loaded in the background (see {@link #loadFromResource(String, Style, int)}).
  * It has methods to change fonts on Swing components, while dealing with other possible internal components inside them.
  */
 public class CustomFont extends java.awt.Font {
@@ -43,18 +60,29 @@ public class CustomFont extends java.awt.Font {
 		}
 	}
 
+	/** Fonts created by the factory methods, by name, style and size. Declared before the constants that use it. */
+	private static final Map<String, CustomFont> interned = new ConcurrentHashMap<>();
+	private static final LongAdder cacheHits = new LongAdder();
+	private static final LongAdder cacheMisses = new LongAdder();
+
+	/** Fonts loaded from resources and files, by their location. */
+	private static final Map<String, CompletableFuture<java.awt.Font>> loaded = new ConcurrentHashMap<>();
+
 	/**
 	 * Plain Arial 20. Default font for 1040p or lesser resolutions.
 	 */
-	public static final CustomFont ARIAL_20 = new CustomFont("Arial", Style.PLAIN, 20);
+	public static final CustomFont ARIAL_20 = of("Arial", Style.PLAIN, 20);
 
 	/**
 	 * Plain Arial 40. Default font for resolutions greater than 1040p.
 	 */
-	public static final CustomFont ARIAL_40 = new CustomFont("Arial", Style.PLAIN, 40);
+	public static final CustomFont ARIAL_40 = of("Arial", Style.PLAIN, 40);
 
 	private static final long serialVersionUID = 1L;
 
+	/** Metrics of this font for each rendering context, created only when requested. */
+	private transient volatile Map<FontRenderContext, FontMetrics> metrics;
+
 	/**
 	 * Constructor receiving all possible parameters for a CustomFont.
 	 * 
@@ -75,27 +103,223 @@ public class CustomFont extends java.awt.Font {
 	public CustomFont(String name, int size) {
 		super(name, Style.PLAIN.getCode(), size);
 	}
+
+	private CustomFont(String name, int styleCode, int size) {
+		super(name, styleCode, size);
+	}
+
+	/**
+	 * Gets a shared font with the given parameters, creating it only on the first request.
+	 * Prefer this over the constructors when the same font is used in many places (such as in each instance of a class).
+	 * 
+	 * @param name - Name of the Font (according to java.awt.Font).
+	 * @param style - The desired style for the font.
+	 * @param size - The desired size for the font.
+	 * @return the shared font.
+	 */
+	public static CustomFont of(String name, Style style, int size) {
+		return of(name, style.getCode(), size);
+	}
+
+	/**
+	 * Overload of {@link #of(String, Style, int)}, considering PLAIN as default style.
+	 * @param name - Name of the Font (according to java.awt.Font).
+	 * @param size - The desired size for the font.
+	 * @return the shared font.
+	 * @see #of(String, Style, int)
+	 */
+	public static CustomFont of(String name, int size) {
+		return of(name, Style.PLAIN.getCode(), size);
+	}
+
+	private static CustomFont of(String name, int styleCode, int size) {
+		String key = name + "|" + styleCode + "|" + size;
+		CustomFont font = interned.get(key);
+		if (font != null) {
+			cacheHits.increment();
+			return font;
+		}
+		cacheMisses.increment();
+		return interned.computeIfAbsent(key, k -> new CustomFont(name, styleCode, size));
+	}
+
+	/**
+	 * Gets the shared font with the same name and style as this one, but with another size.
+	 * @param size - The desired size for the font.
+	 * @return the shared font with the given size.
+	 */
+	public CustomFont withSize(int size) {
+		return of(getName(), getStyle(), size);
+	}
+
+	/**
+	 * Gets the shared font with the same name and size as this one, but with another style.
+	 * @param style - The desired style for the font.
+	 * @return the shared font with the given style.
+	 */
+	public CustomFont withStyle(Style style) {
+		return of(getName(), style.getCode(), getSize());
+	}
+
+	/**
+	 * Gets the metrics of this font for the given rendering context, creating them only on the first request.
+	 * @param context - The rendering context (antialiasing, fractional metrics and transform) to measure texts with.
+	 * @return the font metrics.
+	 */
+	public FontMetrics getMetrics(FontRenderContext context) {
+		Map<FontRenderContext, FontMetrics> cache = metrics;
+		if (cache == null) {
+			synchronized (this) {
+				if (metrics == null)
+					metrics = new ConcurrentHashMap<>();
+				cache = metrics;
+			}
+		}
+		FontMetrics fontMetrics = cache.get(context);
+		if (fontMetrics != null) {
+			cacheHits.increment();
+			return fontMetrics;
+		}
+		cacheMisses.increment();
+		return cache.computeIfAbsent(context, this::createMetrics);
+	}
+
+	private FontMetrics createMetrics(FontRenderContext context) {
+		Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+		try {
+			g.setTransform(context.getTransform());
+			g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, context.getAntiAliasingHint());
+			g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, context.getFractionalMetricsHint());
+			return g.getFontMetrics(this);
+		} finally {
+			g.dispose();
+		}
+	}
+
+	/**
+	 * Loads a TrueType font from a classpath resource, on the background executor of {@link SwingExecutor}.
+	 * The loaded font is registered in the local GraphicsEnvironment (so its name can be used anywhere, like installed fonts),
+	 * and each resource is loaded only once, even if requested many times.
+	 * Until the loading completes, a fallback font may be used, and replaced afterwards with {@link #replaceWhenLoaded}.
+	 * 
+	 * @param resource - Path of the font resource (as in {@link Class#getResource(String)}, relative to the classpath root).
+	 * @param style - The desired style for the font.
+	 * @param size - The desired size for the font.
+	 * @return a future completed with the shared font, or completed exceptionally with an IllegalArgumentException if it can't be loaded.
+	 */
+	public static CompletableFuture<CustomFont> loadFromResource(String resource, Style style, int size) {
+		String path = resource.startsWith("/") ? resource : "/" + resource;
+		return load("resource:" + path, () -> {
+			URL url = CustomFont.class.getResource(path);
+			if (url == null)
+				throw new IllegalArgumentException("Font resource not found: " + path);
+			if ("file".equals(url.getProtocol()))
+				return createFont(new File(url.toURI()));
+			try (InputStream stream = url.openStream()) {
+				return java.awt.Font.createFont(TRUETYPE_FONT, stream);
+			}
+		}).thenApply(font -> of(font.getFontName(), style, size));
+	}
+
+	/**
+	 * Loads a TrueType font from a file, on the background executor of {@link SwingExecutor}.
+	 * It works just like {@link #loadFromResource(String, Style, int)}.
+	 * 
+	 * @param file - The font file.
+	 * @param style - The desired style for the font.
+	 * @param size - The desired size for the font.
+	 * @return a future completed with the shared font, or completed exceptionally with an IllegalArgumentException if it can't be loaded.
+	 * @see #loadFromResource(String, Style, int)
+	 */
+	public static CompletableFuture<CustomFont> loadFromFile(File file, Style style, int size) {
+		return load("file:" + file.getAbsolutePath(), () -> createFont(file))
+				.thenApply(font -> of(font.getFontName(), style, size));
+	}
+
+	/**
+	 * Replaces a fallback font with a loading font, once it's loaded, on all the given components and their inner components.
+	 * The replacement is done in a single batch on the Event Dispatch Thread, followed by a single coalesced refresh.
+	 * Only components with the fallback font set on them are changed. If the loading fails, the fallback font is kept.
+	 * 
+	 * @param loading - The font being loaded (see {@link #loadFromResource(String, Style, int)}).
+	 * @param fallback - The font used by the components until the loading completes.
+	 * @param components - Components to have the fallback font replaced.
+	 */
+	public static void replaceWhenLoaded(CompletableFuture<? extends java.awt.Font> loading, java.awt.Font fallback, Component... components) {
+		loading.thenAccept(font -> SwingUtilities.invokeLater(() -> {
+			for (Component component : components) {
+				replaceFont(component, fallback, font);
+				if (component instanceof Container)
+					SwingComponents.streamChildren((Container) component).forEach(child -> replaceFont(child, fallback, font));
+				SwingComponents.refresh(component, true);
+			}
+		}));
+	}
+
+	private static void replaceFont(Component component, java.awt.Font fallback, java.awt.Font font) {
+		if (component.isFontSet() && fallback.equals(component.getFont()))
+			component.setFont(font);
+	}
+
+	private static CompletableFuture<java.awt.Font> load(String key, Callable<java.awt.Font> reader) {
+		CompletableFuture<java.awt.Font> loading = loaded.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> {
+			try {
+				java.awt.Font font = reader.call();
+				GraphicsEnvironment.getLocalGraphicsEnvironment().registerFont(font);
+				return font;
+			} catch (IllegalArgumentException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new IllegalArgumentException("Error while trying to load font " + k, e);
+			}
+		}, SwingExecutor.background()));
+		loading.whenComplete((font, error) -> {
+			if (error != null)
+				loaded.remove(key, loading); // Allows trying again.
+		});
+		return loading;
+	}
+
+	/** Reads the font directly from the file, without the temporary copy made when reading from streams. */
+	private static java.awt.Font createFont(File file) throws FontFormatException, IOException {
+		return java.awt.Font.createFont(TRUETYPE_FONT, file);
+	}
+
+	/**
+	 * Gets how many requests for shared fonts and metrics were answered from the cache.
+	 * @return the number of cache hits.
+	 */
+	public static long getCacheHits() {
+		return cacheHits.sum();
+	}
+
+	/**
+	 * Gets how many requests for shared fonts and metrics had to create them.
+	 * @return the number of cache misses.
+	 */
+	public static long getCacheMisses() {
+		return cacheMisses.sum();
+	}
+
+	/**
+	 * Gets the number of shared fonts created by the factory methods (they are kept for the whole application).
+	 * @return the number of live shared fonts.
+	 */
+	public static int getLiveFontCount() {
+		return interned.size();
+	}
 	
 	/**
      * Applies a font to all the given components.
      * If any of the components is a container, the font will also be applied to its inner components,
      * except inner components that already have a font applied (this can be changed setting the first parameter force = true).
+     * Each component tree is traversed only once (see {@link ComponentStyle}).
      * 
      * @param force - Wether to apply the font on inner components of containers even if they already had a font applied.
      * @param components - Components to have the font applied on them.
 	 */
 	public void apply(boolean force, Component... components) {
-		for (Component component : components) {
-			component.setFont(this);
-			if (component instanceof JCheckBox)
-				SwingComponents.scaleCheckBoxIcon((JCheckBox) component);
-		    if (component instanceof Container) {
-		        for (Component child : SwingComponents.getAllChildren((Container) component)) {
-		        	if (force || (child.getFont() == null || !(child.getFont() instanceof CustomFont)))
-		        		this.apply(force, child);
-		        }
-		    }
-		}
+		new ComponentStyle().font(this, force).apply(components);
 	}
 	
 	/**
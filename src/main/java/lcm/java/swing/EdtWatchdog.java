@@ -0,0 +1,286 @@
+package lcm.java.swing;
+
+import java.awt.Window;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.swing.SwingUtilities;
+
+/**
+ * Monitors how long the Event Dispatch Thread takes to dispatch events, and reports when it hangs.
+ * <P>
+ * Periodically, a heartbeat is posted to the event queue with the time it was posted, and the delay until
+ * it's dispatched is recorded into a latency histogram. When a heartbeat waits longer than a threshold,
+ * the Event Dispatch Thread's stack trace is captured and reported to the hang listeners, showing what's blocking it.
+ * <P>
+ * It's cheap enough to be always on: it only posts one event per period and does the rest in a background thread.
+ * Heartbeats are only posted while there are displayable windows, so the watchdog doesn't keep the application alive.
+ * All the statistics are also available through JMX, once {@link #registerMBean()} is called.
+ */
+public class EdtWatchdog implements EdtWatchdogMXBean {
+
+    /** Default interval between heartbeats. */
+    private static final long DEFAULT_PERIOD_MILLIS = 100;
+
+    /** Default latency for a hang to be reported. */
+    private static final long DEFAULT_THRESHOLD_MILLIS = 200;
+
+    /** JMX name of the watchdog's MBean. */
+    private static final String MBEAN_NAME = "lcm.java.swing:type=EdtWatchdog";
+
+    /** Buckets of the histogram, each one holding latencies up to twice the previous one (the last up to about 1 minute). */
+    private static final int BUCKETS = 17;
+
+    private final long periodMillis;
+    private final long thresholdMillis;
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+    private final List<Consumer<HangReport>> hangListeners = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+    private volatile Thread edt;
+    private volatile long pendingSince = -1;
+    private volatile boolean hangReported;
+
+    private volatile long sampleCount;
+    private volatile long lastLatencyMillis;
+    private volatile long maxLatencyMillis;
+    private volatile long hangCount;
+    private volatile String lastHangStackTrace;
+
+    /**
+     * Overload for the complete constructor {@link #EdtWatchdog(long, long)}, with a heartbeat every 100ms and a 200ms threshold.
+     * @see #EdtWatchdog(long, long)
+     */
+    public EdtWatchdog() {
+        this(DEFAULT_PERIOD_MILLIS, DEFAULT_THRESHOLD_MILLIS);
+    }
+
+    /**
+     * Constructor for the watchdog. It only starts monitoring with {@link #start()}.
+     *
+     * @param periodMillis - Interval between heartbeats (also the precision for detecting hangs).
+     * @param thresholdMillis - Latency for the Event Dispatch Thread to be considered hanging.
+     */
+    public EdtWatchdog(long periodMillis, long thresholdMillis) {
+        this.periodMillis = periodMillis;
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    /**
+     * Starts monitoring the Event Dispatch Thread.
+     */
+    public synchronized void start() {
+        if (scheduler != null)
+            return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EdtWatchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::check, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops monitoring the Event Dispatch Thread (statistics are kept).
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Registers this watchdog on the platform MBean server, so its statistics are available through JMX.
+     * @throws IllegalStateException if it can't be registered (for example, if another watchdog is already registered).
+     */
+    public void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(MBEAN_NAME));
+        } catch (JMException e) {
+            throw new IllegalStateException("It wasn't possible to register the EdtWatchdog MBean.", e);
+        }
+    }
+
+    /**
+     * Unregisters this watchdog from the platform MBean server, if registered.
+     */
+    public void unregisterMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+        } catch (JMException e) {
+            throw new IllegalStateException("It wasn't possible to unregister the EdtWatchdog MBean.", e);
+        }
+    }
+
+    /**
+     * Adds a listener to be notified of each hang, once its threshold is exceeded.
+     * It's called on the watchdog's thread, so it must not touch Swing components directly.
+     * @param listener - Receives the hang reports.
+     */
+    public void addHangListener(Consumer<HangReport> listener) {
+        hangListeners.add(listener);
+    }
+
+    /**
+     * Gets how many latencies fell in each bucket of the histogram.
+     * Bucket 0 holds latencies under 1ms, and each bucket i after it holds latencies up to {@code 2^i - 1} milliseconds.
+     * @return a copy of the histogram counts.
+     */
+    public long[] getHistogram() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            counts[i] = histogram.get(i);
+        return counts;
+    }
+
+    @Override
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    @Override
+    public long getLastLatencyMillis() {
+        return lastLatencyMillis;
+    }
+
+    @Override
+    public long getMaxLatencyMillis() {
+        return maxLatencyMillis;
+    }
+
+    @Override
+    public long getLatencyPercentileMillis(double percentile) {
+        long[] counts = getHistogram();
+        long total = 0;
+        for (long count : counts)
+            total += count;
+        long target = (long) Math.ceil(total * Math.max(0, Math.min(100, percentile)) / 100);
+        long accumulated = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            accumulated += counts[i];
+            if (accumulated >= target && accumulated > 0)
+                return bucketLimit(i);
+        }
+        return 0;
+    }
+
+    @Override
+    public long getHangCount() {
+        return hangCount;
+    }
+
+    @Override
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    @Override
+    public String getLastHangStackTrace() {
+        return lastHangStackTrace;
+    }
+
+    private void check() {
+        long now = System.nanoTime();
+        long postedAt = pendingSince;
+        if (postedAt < 0) {
+            if (!hasDisplayableWindow())
+                return; // Heartbeats would keep AWT from shutting down once all windows are disposed.
+            pendingSince = now;
+            SwingUtilities.invokeLater(() -> heartbeat(now));
+        } else if (!hangReported && TimeUnit.NANOSECONDS.toMillis(now - postedAt) > thresholdMillis) {
+            hangReported = true;
+            reportHang(TimeUnit.NANOSECONDS.toMillis(now - postedAt));
+        }
+    }
+
+    private void heartbeat(long postedAt) {
+        edt = Thread.currentThread();
+        long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - postedAt);
+        histogram.incrementAndGet(bucketOf(latency));
+        sampleCount++;
+        lastLatencyMillis = latency;
+        maxLatencyMillis = Math.max(maxLatencyMillis, latency);
+        hangReported = false;
+        pendingSince = -1;
+    }
+
+    private void reportHang(long blockedMillis) {
+        Thread thread = edt != null ? edt : findEdt();
+        StackTraceElement[] stack = thread == null ? new StackTraceElement[0] : thread.getStackTrace();
+        StringBuilder trace = new StringBuilder();
+        for (StackTraceElement element : stack)
+            trace.append("\tat ").append(element).append(System.lineSeparator());
+        hangCount++;
+        lastHangStackTrace = trace.toString();
+        HangReport report = new HangReport(blockedMillis, stack);
+        for (Consumer<HangReport> listener : hangListeners)
+            listener.accept(report);
+    }
+
+    private static boolean hasDisplayableWindow() {
+        for (Window window : Window.getWindows()) {
+            if (window.isDisplayable())
+                return true;
+        }
+        return false;
+    }
+
+    /** Looks for the Event Dispatch Thread by its name, for hangs before any heartbeat was dispatched. */
+    private static Thread findEdt() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("AWT-EventQueue"))
+                return thread;
+        }
+        return null;
+    }
+
+    private static int bucketOf(long latencyMillis) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(latencyMillis));
+    }
+
+    private static long bucketLimit(int bucket) {
+        return (1L << bucket) - 1;
+    }
+
+    /**
+     * Report of the Event Dispatch Thread being blocked longer than the threshold.
+     */
+    public static final class HangReport {
+        private final long blockedMillis;
+        private final StackTraceElement[] stackTrace;
+
+        private HangReport(long blockedMillis, StackTraceElement[] stackTrace) {
+            this.blockedMillis = blockedMillis;
+            this.stackTrace = stackTrace;
+        }
+
+        /**
+         * Gets for how long the Event Dispatch Thread had been blocked when the hang was detected.
+         * @return the blocked time in milliseconds (it may still be blocked).
+         */
+        public long getBlockedMillis() {
+            return blockedMillis;
+        }
+
+        /**
+         * Gets the stack trace of the Event Dispatch Thread when the hang was detected.
+         * @return the stack trace (empty if the Event Dispatch Thread wasn't found).
+         */
+        public StackTraceElement[] getStackTrace() {
+            return stackTrace.clone();
+        }
+    }
+}
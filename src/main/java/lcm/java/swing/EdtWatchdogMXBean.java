@@ -0,0 +1,50 @@
+package lcm.java.swing;
+
+/**
+ * Management interface of the {@link EdtWatchdog}, for monitoring the Event Dispatch Thread through JMX.
+ */
+public interface EdtWatchdogMXBean {
+
+    /**
+     * Gets how many heartbeats were dispatched so far.
+     * @return the number of latency samples.
+     */
+    long getSampleCount();
+
+    /**
+     * Gets the latency of the last dispatched heartbeat.
+     * @return the last latency in milliseconds.
+     */
+    long getLastLatencyMillis();
+
+    /**
+     * Gets the highest latency measured so far.
+     * @return the maximum latency in milliseconds.
+     */
+    long getMaxLatencyMillis();
+
+    /**
+     * Gets an upper bound for the given percentile of the measured latencies.
+     * @param percentile - The percentile, from 0 to 100.
+     * @return the percentile latency in milliseconds (rounded up to the histogram's bucket).
+     */
+    long getLatencyPercentileMillis(double percentile);
+
+    /**
+     * Gets how many times the Event Dispatch Thread was blocked longer than the threshold.
+     * @return the number of hangs detected.
+     */
+    long getHangCount();
+
+    /**
+     * Gets the threshold for reporting hangs.
+     * @return the threshold in milliseconds.
+     */
+    long getThresholdMillis();
+
+    /**
+     * Gets the stack trace of the Event Dispatch Thread captured on the last hang.
+     * @return the formatted stack trace, or null if no hang was detected.
+     */
+    String getLastHangStackTrace();
+}
@@ -0,0 +1,175 @@
+package lcm.java.swing;
+
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
+import java.awt.Toolkit;
+import java.awt.Window;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.swing.UIDefaults;
+import javax.swing.UIManager;
+import javax.swing.plaf.FontUIResource;
+import javax.swing.plaf.UIResource;
+
+import lcm.java.swing.CustomFont.Style;
+
+/**
+ * Font scaling for a display, computed once from its resolution and DPI.
+ * <P>
+ * Each display gets a scale factor, and a ramp of fonts (small, normal, large and title) scaled by it.
+ * The fonts are shared {@link CustomFont}s, created only once for each display, so components can use them freely.
+ * The ramp can also be applied to all the font defaults of the UIManager at once (see {@link #applyToUIManager()}),
+ * so Swing components get scaled fonts when they are created, without any font being created for each component.
+ * <P>
+ * The scale factor is 1 for a 1080p display at 96 DPI, and grows with the display height and density, in steps of 0.25.
+ * Displays already scaled by Java (such as HiDPI displays on Java 9+) have their density discounted, as Java scales the fonts itself.
+ * The toolkit only reports the density of the default display, so other displays get the density of their Java scaling
+ * (see {@link Screen.Monitor#getDpi()}), and are scaled by their resolution alone.
+ */
+public class FontScaling {
+
+    /** Font family of the ramp. */
+    private static final String FAMILY = "Arial";
+
+    /** Display height with a scale factor of 1. */
+    private static final double BASE_HEIGHT = 1080;
+
+    /** Display density with a scale factor of 1. */
+    private static final double BASE_DPI = 96;
+
+    /** The scale factor is rounded to multiples of this step, so close displays share fonts. */
+    private static final double SCALE_STEP = 0.25;
+
+    private static final Map<String, FontScaling> byDisplay = new ConcurrentHashMap<>();
+
+    /**
+     * Sizes of the font ramp.
+     */
+    public static enum Size {
+        /** Secondary texts, such as tooltips. */
+        SMALL(14, Style.PLAIN),
+        /** Regular texts, the same size as {@link CustomFont#ARIAL_20} at scale 1. */
+        NORMAL(20, Style.PLAIN),
+        /** Highlighted texts. */
+        LARGE(26, Style.PLAIN),
+        /** Titles and headers. */
+        TITLE(34, Style.BOLD);
+
+        private final int baseSize;
+        private final Style style;
+
+        private Size(int baseSize, Style style) {
+            this.baseSize = baseSize;
+            this.style = style;
+        }
+    }
+
+    private final double scaleFactor;
+    private final Map<Size, CustomFont> fonts = new EnumMap<>(Size.class);
+    private final Map<Size, FontUIResource> resources = new EnumMap<>(Size.class);
+
+    private FontScaling(double scaleFactor) {
+        this.scaleFactor = scaleFactor;
+        for (Size size : Size.values()) {
+            CustomFont font = CustomFont.of(FAMILY, size.style, (int) Math.round(size.baseSize * scaleFactor));
+            fonts.put(size, font);
+            resources.put(size, new FontUIResource(font));
+        }
+    }
+
+    /**
+     * Gets the font scaling for the default display.
+     * On headless environments, a scaling with factor 1 is returned.
+     * @return the font scaling, computed on the first call.
+     */
+    public static FontScaling forDefaultDisplay() {
+        if (GraphicsEnvironment.isHeadless())
+            return byDisplay.computeIfAbsent("headless", k -> new FontScaling(1));
+        return forDisplay(GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice());
+    }
+
+    /**
+     * Gets the font scaling for the display the given window is on.
+     * @param window - The window whose display is used.
+     * @return the font scaling, computed on the first call for that display.
+     */
+    public static FontScaling forWindow(Window window) {
+        GraphicsConfiguration configuration = window.getGraphicsConfiguration();
+        return configuration == null ? forDefaultDisplay() : forDisplay(configuration.getDevice());
+    }
+
+    /**
+     * Gets the font scaling for the given display.
+     * @param device - The display.
+     * @return the font scaling, computed on the first call for that display.
+     */
+    public static FontScaling forDisplay(GraphicsDevice device) {
+        return byDisplay.computeIfAbsent(device.getIDstring(), k -> new FontScaling(computeScaleFactor(device)));
+    }
+
+    private static double computeScaleFactor(GraphicsDevice device) {
+        GraphicsConfiguration configuration = device.getDefaultConfiguration();
+        double javaScale = configuration.getDefaultTransform().getScaleY();
+        double resolutionScale = configuration.getBounds().getHeight() / BASE_HEIGHT;
+        double dpi = device.equals(GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice())
+                ? Toolkit.getDefaultToolkit().getScreenResolution() : BASE_DPI * javaScale;
+        double dpiScale = dpi / BASE_DPI / javaScale;
+        double scale = Math.max(1, Math.max(resolutionScale, dpiScale));
+        return Math.round(scale / SCALE_STEP) * SCALE_STEP;
+    }
+
+    /**
+     * Gets the scale factor of the display.
+     * @return the scale factor, 1 for a 1080p display at 96 DPI.
+     */
+    public double getScaleFactor() {
+        return scaleFactor;
+    }
+
+    /**
+     * Gets the font of the ramp for the given size.
+     * @param size - The size on the ramp.
+     * @return the scaled font (always the same instance for this display).
+     */
+    public CustomFont getFont(Size size) {
+        return fonts.get(size);
+    }
+
+    /**
+     * Sets the scaled fonts as the defaults of all the fonts of the current look and feel, in a single batch.
+     * Tooltips get the small font, titles and headers get the title font, and the rest gets the normal font.
+     * Components created afterwards (or updated with {@link javax.swing.SwingUtilities#updateComponentTreeUI}) use them.
+     * Fonts already set on components (not UI resources) are not affected.
+     * As with any change on the UIManager, it should be called on the Event Dispatch Thread.
+     */
+    public void applyToUIManager() {
+        UIDefaults lookAndFeelDefaults = UIManager.getLookAndFeelDefaults();
+        List<Object> keyValues = new ArrayList<>();
+        for (Object key : new ArrayList<>(lookAndFeelDefaults.keySet())) {
+            if (key instanceof String && ((String) key).toLowerCase().endsWith("font")
+                    && UIManager.get(key) instanceof UIResource) {
+                keyValues.add(key);
+                keyValues.add(resources.get(rampSizeOf((String) key)));
+            }
+        }
+        UIManager.getDefaults().putDefaults(keyValues.toArray());
+    }
+
+    private static Size rampSizeOf(String key) {
+        if (key.startsWith("ToolTip."))
+            return Size.SMALL;
+        if (key.contains("title") || key.contains("Title") || key.startsWith("TableHeader."))
+            return Size.TITLE;
+        return Size.NORMAL;
+    }
+
+    @Override
+    public String toString() {
+        return "FontScaling[scaleFactor=" + scaleFactor + ", fonts=" + fonts.values() + "]";
+    }
+}
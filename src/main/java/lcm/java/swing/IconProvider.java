@@ -0,0 +1,166 @@
+package lcm.java.swing;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.MediaTracker;
+import java.awt.image.BufferedImage;
+import java.util.function.Supplier;
+
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.UIManager;
+
+/**
+ * Provider of icons rendered once and shared by all the components that ask for the same image and size.
+ * <P>
+ * Each icon is pre-rendered at a fixed set of scale factors (for displays with different DPI settings),
+ * and each paint picks the variant closest to the scale of the graphics it's painted to.
+ * This way, components don't need to rescale their images on creation nor on painting.
+ * <P>
+ * Icons are {@link ImageIcon}s whose image is the variant at scale 1, so look and feels can still derive
+ * the grayed out icon of disabled components from them.
+ */
+public class IconProvider {
+
+    /** Scale factors for which each icon is pre-rendered. */
+    private static final float[] SCALES = { 1f, 1.25f, 1.5f, 1.75f, 2f };
+
+    /** Maximum number of icons kept (least recently used ones are discarded, and rendered again if requested). */
+    private static final int CACHE_CAPACITY = 512;
+
+    private static final LruCache<String, ImageIcon> icons = new LruCache<>(CACHE_CAPACITY);
+
+    private IconProvider() {}
+
+    /**
+     * Gets the shared icon for the given image and size, rendering it on the first request.
+     *
+     * @param key - Identifies the image (such as its path). Requests with the same key and size get the same icon.
+     * @param source - Supplies the original image, only called if the icon is not rendered yet.
+     * @param width - The icon width.
+     * @param height - The icon height.
+     * @return the shared icon.
+     * @throws IllegalArgumentException if the image can't be loaded.
+     */
+    public static ImageIcon getIcon(String key, Supplier<? extends Image> source, int width, int height) {
+        String sizedKey = key + "@" + width + "x" + height;
+        ImageIcon icon = icons.get(sizedKey);
+        if (icon == null) {
+            // Rendered outside the cache lock, so slow images don't block other icons (a concurrent duplicate is harmless).
+            icon = new MultiResolutionIcon(load(key, source), width, height);
+            icons.put(sizedKey, icon);
+        }
+        return icon;
+    }
+
+    /** Gets the source image, waiting for it to be loaded (as Toolkit images load asynchronously). */
+    private static Image load(String key, Supplier<? extends Image> source) {
+        Image image = source.get();
+        if (image != null && (image.getWidth(null) < 0 || image.getHeight(null) < 0)) {
+            ImageIcon loaded = new ImageIcon(image);
+            image = loaded.getImageLoadStatus() == MediaTracker.COMPLETE ? loaded.getImage() : null;
+        }
+        if (image == null || image.getWidth(null) <= 0 || image.getHeight(null) <= 0)
+            throw new IllegalArgumentException("Image can't be loaded for icon " + key);
+        return image;
+    }
+
+    /**
+     * Gets the shared icon for the image in the given path (see {@link Images#getImageFromPath(String)}).
+     *
+     * @param imagePath - The path for the image's file.
+     * @param width - The icon width.
+     * @param height - The icon height.
+     * @return the shared icon.
+     * @throws IllegalArgumentException if the image can't be loaded from the path.
+     */
+    public static ImageIcon getImageIcon(String imagePath, int width, int height) {
+        return getIcon("path:" + imagePath, () -> Images.getImageFromPath(imagePath), width, height);
+    }
+
+    /**
+     * Gets the shared icon for an icon of the current look and feel (such as "OptionPane.questionIcon").
+     * Icons rendered for other look and feels are not reused.
+     *
+     * @param uiKey - The key of the icon in the {@link UIManager}.
+     * @param size - The icon width and height.
+     * @return the shared icon.
+     */
+    public static ImageIcon getLookAndFeelIcon(String uiKey, int size) {
+        String key = "laf:" + UIManager.getLookAndFeel().getClass().getName() + ":" + uiKey;
+        return getIcon(key, () -> paintToImage(UIManager.getIcon(uiKey)), size, size);
+    }
+
+    /**
+     * Discards all the rendered icons (components already using them are not affected).
+     */
+    public static void clear() {
+        icons.clear();
+    }
+
+    /**
+     * Gets the number of different icons currently kept rendered (at most 512).
+     * @return the number of icons shared by the provider.
+     */
+    public static int getIconCount() {
+        return icons.size();
+    }
+
+    private static Image paintToImage(Icon icon) {
+        if (icon == null)
+            throw new IllegalArgumentException("Icon not found in the current look and feel.");
+        BufferedImage image = new BufferedImage(icon.getIconWidth(), icon.getIconHeight(), BufferedImage.TYPE_INT_ARGB);
+        Graphics g = image.createGraphics();
+        try {
+            icon.paintIcon(new JLabel(), g, 0, 0); // Some look and feel icons need a component to be painted.
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Icon with a fixed size, holding its image pre-rendered for each scale factor.
+     * Its own image (used by look and feels to create the disabled icon) is the variant at scale 1.
+     */
+    private static class MultiResolutionIcon extends ImageIcon {
+        private final transient BufferedImage[] variants = new BufferedImage[SCALES.length];
+        private final int width;
+        private final int height;
+
+        private MultiResolutionIcon(Image image, int width, int height) {
+            this.width = width;
+            this.height = height;
+            for (int i = 0; i < SCALES.length; i++) {
+                int w = Math.max(1, Math.round(width * SCALES[i]));
+                int h = Math.max(1, Math.round(height * SCALES[i]));
+                variants[i] = Images.toCompatibleImage(image.getScaledInstance(w, h, Image.SCALE_SMOOTH));
+            }
+            setImage(variants[0]);
+        }
+
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            double scale = g instanceof Graphics2D ? ((Graphics2D) g).getTransform().getScaleX() : 1;
+            int closest = 0;
+            for (int i = 1; i < SCALES.length; i++) {
+                if (Math.abs(SCALES[i] - scale) < Math.abs(SCALES[closest] - scale))
+                    closest = i;
+            }
+            g.drawImage(variants[closest], x, y, width, height, null);
+        }
+
+        @Override
+        public int getIconWidth() {
+            return width;
+        }
+
+        @Override
+        public int getIconHeight() {
+            return height;
+        }
+    }
+}
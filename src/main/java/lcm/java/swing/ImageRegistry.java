@@ -0,0 +1,228 @@
+package lcm.java.swing;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Registry that shares decoded images with identical content.
+ * Images are identified by a hash of their encoded bytes (for loaded files and resources)
+ * or of their pixels (for generated images), so the same artwork loaded from different
+ * paths ends up as a single decoded instance in memory.
+ * <P>
+ * References are weak: an image no longer used anywhere else can still be garbage collected.
+ * Notice that the returned images are shared, so they must not be modified by the callers.
+ */
+public class ImageRegistry {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private static final Map<String, ImageReference> images = new HashMap<>();
+    private static final Map<String, CompletableFuture<Void>> decodings = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Image> collected = new ReferenceQueue<>();
+
+    private static long hits;
+    private static long misses;
+    private static long bytesSaved;
+
+    private ImageRegistry() {}
+
+    /**
+     * Gets the shared image for the given encoded bytes, decoding them only if this content was not seen before.
+     *
+     * @param encoded - The encoded image bytes (such as the content of a PNG file).
+     * @param decoder - Decodes the bytes when there is no shared instance for them yet.
+     * @return the shared decoded image.
+     */
+    public static Image intern(byte[] encoded, Supplier<? extends Image> decoder) {
+        return intern("bytes:" + hash(encoded), decoder, () -> decodedSizeOf(encoded));
+    }
+
+    /**
+     * Gets the shared instance for a generated image, identified by its size and pixels.
+     * If no identical image was registered before, the given image itself becomes the shared instance.
+     *
+     * @param image - The generated image.
+     * @return the shared image with the same content.
+     */
+    public static BufferedImage intern(BufferedImage image) {
+        return (BufferedImage) intern("pixels:" + hashPixels(image), () -> image, () -> (long) image.getWidth() * image.getHeight() * 4);
+    }
+
+    private static Image intern(String key, Supplier<? extends Image> decoder, LongSupplier decodedSize) {
+        Image image = lookup(key);
+        if (image != null)
+            return image;
+        CompletableFuture<Void> decoding = new CompletableFuture<>();
+        CompletableFuture<Void> concurrent = decodings.putIfAbsent(key, decoding);
+        if (concurrent != null) {
+            concurrent.join(); // The same content is being decoded by another thread, so its result is shared.
+            image = lookup(key);
+            if (image != null)
+                return image;
+        }
+        try {
+            // Decoded without holding the lock, so images with different contents are loaded in parallel.
+            image = decoder.get();
+            return publish(key, image, image == null ? 0 : decodedSize.getAsLong());
+        } finally {
+            if (concurrent == null) {
+                decodings.remove(key, decoding);
+                decoding.complete(null);
+            }
+        }
+    }
+
+    /** Gets the shared image for the given key, if it's still alive, counting a hit. */
+    private static synchronized Image lookup(String key) {
+        expungeCollected();
+        ImageReference reference = images.get(key);
+        Image image = reference == null ? null : reference.get();
+        if (image != null) {
+            hits++;
+            bytesSaved += reference.decodedSize;
+        }
+        return image;
+    }
+
+    /** Registers a decoded image, unless an identical one was registered meanwhile (which is returned instead). */
+    private static synchronized Image publish(String key, Image image, long decodedSize) {
+        misses++;
+        if (image == null)
+            return null;
+        ImageReference reference = images.get(key);
+        Image existing = reference == null ? null : reference.get();
+        if (existing != null)
+            return existing;
+        images.put(key, new ImageReference(key, image, decodedSize, collected));
+        return image;
+    }
+
+    /**
+     * Gets how many requests were answered with an already decoded image.
+     * @return the number of registry hits.
+     */
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets how many requests had to decode or register a new image.
+     * @return the number of registry misses.
+     */
+    public static synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets an estimate of the bytes that would have been spent by duplicated decoded images (4 bytes per pixel).
+     * Images not yet loaded by the Toolkit are counted by the dimensions in their encoded bytes.
+     * @return the total of bytes saved by sharing images.
+     */
+    public static synchronized long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    /**
+     * Gets the number of shared images currently alive in the registry.
+     * @return the number of live images.
+     */
+    public static synchronized int getLiveImages() {
+        expungeCollected();
+        return images.size();
+    }
+
+    private static void expungeCollected() {
+        ImageReference reference;
+        while ((reference = (ImageReference) collected.poll()) != null) {
+            if (images.get(reference.key) == reference)
+                images.remove(reference.key);
+        }
+    }
+
+    /**
+     * Gets the size of the decoded image from the dimensions in the encoded header, as Toolkit images
+     * (see {@link Images#getImageFromPath(String)}) may not be loaded yet when they are shared.
+     */
+    private static long decodedSizeOf(byte[] encoded) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(encoded))) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext())
+                return 0;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return (long) reader.getWidth(0) * reader.getHeight(0) * 4;
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            return 0; // Unknown format: the decoder will report the error, this only affects the statistics.
+        }
+    }
+
+    private static String hash(byte[] bytes) {
+        MessageDigest digest = newDigest();
+        digest.update(bytes);
+        return toHex(digest.digest());
+    }
+
+    private static String hashPixels(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        MessageDigest digest = newDigest();
+        digest.update(ByteBuffer.allocate(8).putInt(width).putInt(height).array());
+        int[] row = new int[width];
+        ByteBuffer rowBytes = ByteBuffer.allocate(width * 4);
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            rowBytes.clear();
+            rowBytes.asIntBuffer().put(row);
+            digest.update(rowBytes.array());
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not available.", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes)
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return hex.toString();
+    }
+
+    private static class ImageReference extends WeakReference<Image> {
+        private final String key;
+        private final long decodedSize;
+
+        private ImageReference(String key, Image image, long decodedSize, ReferenceQueue<Image> queue) {
+            super(image, queue);
+            this.key = key;
+            this.decodedSize = decodedSize;
+        }
+    }
+}
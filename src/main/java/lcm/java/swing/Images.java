@@ -1,26 +1,47 @@
 package lcm.java.swing;
 
+import java.awt.AlphaComposite;
+import java.awt.Color;
 import java.awt.Component;
 import java.awt.Container;
 import java.awt.Cursor;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
 import java.awt.Image;
 import java.awt.Insets;
 import java.awt.Toolkit;
+import java.awt.Transparency;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
 import java.awt.image.ImageObserver;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
 
 import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
-import javax.swing.UIManager;
 
 public class Images {
 
+    /** Minimum number of pixels for an image to have its pixel operations run in parallel. */
+    private static final int PARALLEL_PIXEL_THRESHOLD = 512 * 512;
+
+    /** Number of pixels read and written at once by pixel operations. */
+    private static final int PIXEL_BAND_SIZE = 64 * 1024;
+
     /**
 	 * Creates a button with a given image.
      * 
@@ -34,17 +55,34 @@ public class Images {
 		return button;
 	}
 
+    /**
+	 * Creates a button with a given image in a fixed size.
+	 * Contrary to {@link #createImageButton(String)}, the image is not stretched to the button's size on each paint:
+	 * it's rendered once and shared by all buttons with the same image and size (see {@link IconProvider}).
+     * 
+     * @param imagePath - The path for the image's file.
+     * @param width - The image width.
+     * @param height - The image height.
+     * @return JButton with an icon.
+	 */
+	public static JButton createImageButton(String imagePath, int width, int height) {
+		JButton button = new JButton();
+		button.setMargin(new Insets(0, 0, 0, 0));
+		button.setIcon(IconProvider.getImageIcon(imagePath, width, height));
+		return button;
+	}
+
     /**
      * Creates a tooltip (question mark) label with the given hint text.
+     * The icon is shared by all tooltip labels with the same size (see {@link IconProvider}).
      *
      * @param tipText the text to display in the tooltip
      * @param size the size of the tooltip
      * @return a JLabel with an attached mouse listener that displays the tooltip when clicked
      */
     public static JLabel createTooltipLabel(String tipText, int size) {
-        ImageIcon questionIcon = (ImageIcon) UIManager.getIcon("OptionPane.questionIcon");
-        questionIcon = new ImageIcon(questionIcon.getImage().getScaledInstance(size, size, Image.SCALE_SMOOTH));
-        JLabel questionLabel = new JLabel(questionIcon);
+        SwingComponents.installDefaults();
+        JLabel questionLabel = new JLabel(IconProvider.getLookAndFeelIcon("OptionPane.questionIcon", size));
         questionLabel.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
         questionLabel.addMouseListener(new MouseAdapter() {
             @Override
@@ -60,14 +98,14 @@ public class Images {
      *
      * @param  image                the image to be resized
      * @param  proportionPercentage the percentage to resize the image by
-     * @return                      the resized image
+     * @return                      the resized image, in a screen compatible format (see {@link #toCompatibleImage(Image)})
      */
     public static Image resizeByProportion(Image image, int proportionPercentage) {
         int imageWidth = image.getWidth(null);
         int imageHeight = image.getHeight(null);
         int newWidth = imageWidth * proportionPercentage / 100;
         int newHeight = imageHeight * proportionPercentage / 100;
-        return image.getScaledInstance(newWidth, newHeight, Image.SCALE_SMOOTH);
+        return toCompatibleImage(image.getScaledInstance(newWidth, newHeight, Image.SCALE_SMOOTH));
     }
 
     /**
@@ -96,16 +134,253 @@ public class Images {
         return resizeByProportion(image, proportion);
     }
 
+    /**
+     * Converts the given image to the format of the default screen, so drawing it doesn't require
+     * a conversion on every paint and it's eligible for hardware acceleration.
+     * When there is no screen (headless environment), the format used is {@link BufferedImage#TYPE_INT_ARGB_PRE},
+     * or {@link BufferedImage#TYPE_INT_RGB} for opaque images (as blending is slower than copying them).
+     *
+     * @param  image  the image to be converted
+     * @return        the image itself if it's already compatible, or a compatible copy of it
+     */
+    public static BufferedImage toCompatibleImage(Image image) {
+        if (image.getWidth(null) < 0 || image.getHeight(null) < 0)
+            image = new ImageIcon(image).getImage(); // Waits for toolkit images to be loaded.
+        int width = image.getWidth(null);
+        int height = image.getHeight(null);
+        int transparency = image instanceof BufferedImage ? ((BufferedImage) image).getTransparency() : Transparency.TRANSLUCENT;
+
+        BufferedImage compatible;
+        if (GraphicsEnvironment.isHeadless()) {
+            int type = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE;
+            if (image instanceof BufferedImage && ((BufferedImage) image).getType() == type)
+                return (BufferedImage) image;
+            compatible = new BufferedImage(width, height, type);
+        } else {
+            GraphicsConfiguration configuration = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            if (image instanceof BufferedImage && ((BufferedImage) image).getColorModel().equals(configuration.getColorModel(transparency)))
+                return (BufferedImage) image;
+            compatible = configuration.createCompatibleImage(width, height, transparency);
+        }
+        Graphics2D g = compatible.createGraphics();
+        try {
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return compatible;
+    }
+
+    /**
+     * Copies the given image into a new image of type {@link BufferedImage#TYPE_INT_ARGB}.
+     * The copy is independent from the original, so it can be freely modified
+     * (images retrieved by this class are shared, see {@link ImageRegistry}).
+     *
+     * @param  image  the image to be copied
+     * @return        the new TYPE_INT_ARGB image
+     */
+    public static BufferedImage toIntArgb(Image image) {
+        if (image.getWidth(null) < 0 || image.getHeight(null) < 0)
+            image = new ImageIcon(image).getImage(); // Waits for toolkit images to be loaded.
+        BufferedImage copy = new BufferedImage(image.getWidth(null), image.getHeight(null), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = copy.createGraphics();
+        try {
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return copy;
+    }
+
+    /**
+     * Tints an image towards the given color, keeping its transparency.
+     * The given image is not changed (see {@link #tintInPlace(BufferedImage, Color, float)}).
+     *
+     * @param  image     the image to be tinted
+     * @param  color     the color to tint the image with
+     * @param  strength  how much of the color to apply, from 0 (none) to 1 (image fully painted with the color)
+     * @return           a new tinted image, of type TYPE_INT_ARGB
+     */
+    public static BufferedImage tint(Image image, Color color, float strength) {
+        BufferedImage tinted = toIntArgb(image);
+        if ((long) tinted.getWidth() * tinted.getHeight() < PARALLEL_PIXEL_THRESHOLD)
+            return tintInPlace(tinted, color, strength);
+        // For big images, a composite fill is faster than a second pass over the copied pixels.
+        Graphics2D g = tinted.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_ATOP, Math.max(0, Math.min(1, strength))));
+            g.setColor(color);
+            g.fillRect(0, 0, tinted.getWidth(), tinted.getHeight());
+        } finally {
+            g.dispose();
+        }
+        return tinted;
+    }
+
+    /**
+     * Tints a TYPE_INT_ARGB image towards the given color, changing its own pixels.
+     * Notice that images retrieved by this class are shared (see {@link ImageRegistry}), so they must not be changed.
+     *
+     * @param  image     the TYPE_INT_ARGB image to be tinted
+     * @param  color     the color to tint the image with
+     * @param  strength  how much of the color to apply, from 0 (none) to 1 (image fully painted with the color)
+     * @return           the given image
+     * @throws IllegalArgumentException if the image is not of type TYPE_INT_ARGB
+     */
+    public static BufferedImage tintInPlace(BufferedImage image, Color color, float strength) {
+        int amount = Math.round(Math.max(0, Math.min(1, strength)) * 256);
+        int keep = 256 - amount;
+        int tr = color.getRed() * amount, tg = color.getGreen() * amount, tb = color.getBlue() * amount;
+        return applyPerPixel(image, argb -> (argb & 0xFF000000)
+                | (((((argb >> 16) & 0xFF) * keep + tr) >> 8) << 16)
+                | (((((argb >> 8) & 0xFF) * keep + tg) >> 8) << 8)
+                | ((((argb & 0xFF) * keep + tb) >> 8)));
+    }
+
+    /**
+     * Grays out an image, the way disabled icons are usually displayed (brighter gray levels, same transparency).
+     * The given image is not changed (see {@link #grayOutInPlace(BufferedImage)}).
+     *
+     * @param  image  the image to be grayed out
+     * @return        a new grayed out image, of type TYPE_INT_ARGB
+     * @see javax.swing.GrayFilter
+     */
+    public static BufferedImage grayOut(Image image) {
+        return grayOutInPlace(toIntArgb(image));
+    }
+
+    /**
+     * Grays out a TYPE_INT_ARGB image, changing its own pixels.
+     * Notice that images retrieved by this class are shared (see {@link ImageRegistry}), so they must not be changed.
+     *
+     * @param  image  the TYPE_INT_ARGB image to be grayed out
+     * @return        the given image
+     * @throws IllegalArgumentException if the image is not of type TYPE_INT_ARGB
+     */
+    public static BufferedImage grayOutInPlace(BufferedImage image) {
+        return applyPerPixel(image, argb -> {
+            int gray = (int) ((0.30 * ((argb >> 16) & 0xFF) + 0.59 * ((argb >> 8) & 0xFF) + 0.11 * (argb & 0xFF)) / 3);
+            gray = 255 - ((255 - gray) * 50 / 100); // Same as GrayFilter, brighter with 50% of gray.
+            return (argb & 0xFF000000) | (gray << 16) | (gray << 8) | gray;
+        });
+    }
+
+    /**
+     * Replaces all the pixels of a given color by another color, keeping their transparency.
+     * The given image is not changed (see {@link #recolorInPlace(BufferedImage, Color, Color)}).
+     *
+     * @param  image  the image to be recolored
+     * @param  from   the color to be replaced (its alpha is ignored)
+     * @param  to     the new color (its alpha is ignored)
+     * @return        a new recolored image, of type TYPE_INT_ARGB
+     */
+    public static BufferedImage recolor(Image image, Color from, Color to) {
+        return recolorInPlace(toIntArgb(image), from, to);
+    }
+
+    /**
+     * Replaces all the pixels of a given color by another color on a TYPE_INT_ARGB image, changing its own pixels.
+     * Notice that images retrieved by this class are shared (see {@link ImageRegistry}), so they must not be changed.
+     *
+     * @param  image  the TYPE_INT_ARGB image to be recolored
+     * @param  from   the color to be replaced (its alpha is ignored)
+     * @param  to     the new color (its alpha is ignored)
+     * @return        the given image
+     * @throws IllegalArgumentException if the image is not of type TYPE_INT_ARGB
+     */
+    public static BufferedImage recolorInPlace(BufferedImage image, Color from, Color to) {
+        int fromRgb = from.getRGB() & 0xFFFFFF;
+        int toRgb = to.getRGB() & 0xFFFFFF;
+        return applyPerPixel(image, argb -> (argb & 0xFFFFFF) == fromRgb ? (argb & 0xFF000000) | toRgb : argb);
+    }
+
+    /**
+     * Multiplies the transparency of an image by the given alpha, making it translucent.
+     * The given image is not changed (see {@link #multiplyAlphaInPlace(BufferedImage, float)}).
+     *
+     * @param  image  the image to be made translucent
+     * @param  alpha  the alpha to multiply by, from 0 (invisible) to 1 (unchanged)
+     * @return        a new translucent image, of type TYPE_INT_ARGB
+     */
+    public static BufferedImage multiplyAlpha(Image image, float alpha) {
+        if (image.getWidth(null) < 0 || image.getHeight(null) < 0)
+            image = new ImageIcon(image).getImage(); // Waits for toolkit images to be loaded.
+        // Copying with an alpha composite makes the image translucent in the same pass.
+        BufferedImage translucent = new BufferedImage(image.getWidth(null), image.getHeight(null), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = translucent.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, Math.max(0, Math.min(1, alpha))));
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return translucent;
+    }
+
+    /**
+     * Multiplies the transparency of a TYPE_INT_ARGB image by the given alpha, changing its own pixels.
+     * Notice that images retrieved by this class are shared (see {@link ImageRegistry}), so they must not be changed.
+     *
+     * @param  image  the TYPE_INT_ARGB image to be made translucent
+     * @param  alpha  the alpha to multiply by, from 0 (invisible) to 1 (unchanged)
+     * @return        the given image
+     * @throws IllegalArgumentException if the image is not of type TYPE_INT_ARGB
+     */
+    public static BufferedImage multiplyAlphaInPlace(BufferedImage image, float alpha) {
+        int factor = Math.round(Math.max(0, Math.min(1, alpha)) * 256);
+        return applyPerPixel(image, argb -> ((((argb >>> 24) * factor) >> 8) << 24) | (argb & 0xFFFFFF));
+    }
+
+    /**
+     * Applies an operation over each ARGB pixel of a TYPE_INT_ARGB image, a band of rows at a time.
+     * Pixels are read and written through the raster (not its data array), so the image stays eligible for acceleration.
+     * Big images have their bands processed in parallel.
+     */
+    private static BufferedImage applyPerPixel(BufferedImage image, IntUnaryOperator operation) {
+        if (image.getType() != BufferedImage.TYPE_INT_ARGB)
+            throw new IllegalArgumentException("Pixel operations in place need a TYPE_INT_ARGB image, not type " + image.getType());
+        WritableRaster raster = image.getRaster();
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int bandHeight = Math.max(1, Math.min(height, PIXEL_BAND_SIZE / Math.max(1, width)));
+        IntStream bands = IntStream.range(0, (height + bandHeight - 1) / bandHeight);
+        if ((long) width * height >= PARALLEL_PIXEL_THRESHOLD)
+            bands = bands.parallel();
+        bands.forEach(band -> {
+            int y = band * bandHeight;
+            int rows = Math.min(bandHeight, height - y);
+            int[] pixels = (int[]) raster.getDataElements(0, y, width, rows, null);
+            for (int i = 0; i < pixels.length; i++)
+                pixels[i] = operation.applyAsInt(pixels[i]);
+            raster.setDataElements(0, y, width, rows, pixels);
+        });
+        return image;
+    }
+
      /**
      * Retrieves an image from a resource with the specified path (may be relative inside the JAR).
+     * Identical images are shared (see {@link ImageRegistry}), and they are converted
+     * to a screen compatible format (see {@link #toCompatibleImage(Image)}).
      *
      * @param  resource  the path to the image resource
      * @return           the image retrieved from the resource
      * @throws IllegalArgumentException if there is an error while trying to get the image from the resource
      */
     public static Image getImageFromResource(String resource) {
-        try {
-            return ImageIO.read(SwingComponents.class.getResourceAsStream(resource));
+        InputStream stream = SwingComponents.class.getResourceAsStream(resource);
+        if (stream == null)
+            throw new IllegalArgumentException("Resource not found: " + resource);
+        try (InputStream input = stream) {
+            byte[] encoded = readAllBytes(input);
+            return ImageRegistry.intern(encoded, () -> {
+                try {
+                    BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(encoded));
+                    return decoded == null ? null : toCompatibleImage(decoded);
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Error while trying to get image from resource " + resource, e);
+                }
+            });
         } catch (IOException e) {
             throw new IllegalArgumentException("Error while trying to get image from resource " + resource, e);
         }
@@ -114,13 +389,29 @@ public class Images {
     /**
      * Returns an Image object that can then be drawn to the screen. 
      * The image is specified by a filesystem's path and is loaded using the 
-     * default toolkit. 
+     * default toolkit. Identical images are shared (see {@link ImageRegistry}).
      *
      * @param  path  a string that represents the path to the image file
      * @return       the Image object representing the image at the specified path
      */
     public static Image getImageFromPath(String path) {
-        return Toolkit.getDefaultToolkit().getImage(path);
+        byte[] encoded;
+        try {
+            encoded = Files.readAllBytes(Paths.get(path));
+        } catch (IOException | InvalidPathException e) {
+            // Keeps the toolkit's behavior for unreadable paths (an image that fails to load).
+            return Toolkit.getDefaultToolkit().getImage(path);
+        }
+        return ImageRegistry.intern(encoded, () -> Toolkit.getDefaultToolkit().createImage(encoded));
+    }
+
+    private static byte[] readAllBytes(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = input.read(buffer)) != -1)
+            output.write(buffer, 0, read);
+        return output.toByteArray();
     }
 
     /**
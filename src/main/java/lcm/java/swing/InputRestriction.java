@@ -0,0 +1,114 @@
+package lcm.java.swing;
+
+import java.util.function.IntPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DocumentFilter;
+import javax.swing.text.JTextComponent;
+
+/**
+ * Filter that only lets text fields receive text allowed by a restriction (typed, pasted or inserted by code).
+ * Patterns are compiled only once, when the restriction is created, so checking each keystroke or paste is cheap.
+ * <P>
+ * Restrictions by allowed characters ({@link #allowingChars(String)} and {@link #allowingChars(IntPredicate)})
+ * check big pastes in chunks, stopping at the first invalid character, and without the deep recursion
+ * a regex would need to match a whole multi-megabyte text.
+ *
+ * @see SwingComponents#restrictInput(javax.swing.JTextField, String)
+ */
+public class InputRestriction extends DocumentFilter {
+
+    /** Number of characters checked at once by the restrictions by allowed characters. */
+    private static final int CHUNK_SIZE = 4096;
+
+    private final TextCheck check;
+
+    private InputRestriction(TextCheck check) {
+        this.check = check;
+    }
+
+    /**
+     * Creates a restriction that only allows texts entirely matching the given regex.
+     * Each inserted text (such as a typed character or a pasted text) must match it on its own.
+     *
+     * @param regex - The regex pattern the inserted texts must match.
+     * @return the restriction.
+     */
+    public static InputRestriction matching(String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        return new InputRestriction(text -> pattern.matcher(text).matches());
+    }
+
+    /**
+     * Creates a restriction that only allows characters matching the given single-character regex (such as "[0-9a-f]").
+     *
+     * @param charRegex - The regex pattern each inserted character must match.
+     * @return the restriction.
+     */
+    public static InputRestriction allowingChars(String charRegex) {
+        Pattern pattern = Pattern.compile("(?:" + charRegex + ")*");
+        return new InputRestriction(text -> {
+            Matcher matcher = pattern.matcher(text);
+            for (int start = 0; start < text.length(); start += CHUNK_SIZE) {
+                if (!matcher.region(start, Math.min(start + CHUNK_SIZE, text.length())).matches())
+                    return false;
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Creates a restriction that only allows characters accepted by the given predicate (such as {@code Character::isDigit}).
+     *
+     * @param allowed - Tells wether each inserted character (code point) is allowed.
+     * @return the restriction.
+     */
+    public static InputRestriction allowingChars(IntPredicate allowed) {
+        return new InputRestriction(text -> {
+            for (int i = 0; i < text.length(); ) {
+                int codePoint = Character.codePointAt(text, i);
+                if (!allowed.test(codePoint))
+                    return false;
+                i += Character.charCount(codePoint);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Installs this restriction on the given text component, replacing any other document filter.
+     * @param input - The text component to restrict input on.
+     */
+    public void install(JTextComponent input) {
+        ((AbstractDocument) input.getDocument()).setDocumentFilter(this);
+    }
+
+    /**
+     * Tells wether the given text is allowed by this restriction.
+     * @param text - The text to be checked.
+     * @return true if the text may be inserted.
+     */
+    public boolean allows(String text) {
+        return text == null || text.isEmpty() || check.allows(text);
+    }
+
+    @Override
+    public void insertString(FilterBypass fb, int offset, String text, AttributeSet attrs) throws BadLocationException {
+        if (allows(text))
+            super.insertString(fb, offset, text, attrs);
+    }
+
+    @Override
+    public void replace(FilterBypass fb, int offset, int length, String text, AttributeSet attrs) throws BadLocationException {
+        if (allows(text))
+            super.replace(fb, offset, length, text, attrs);
+    }
+
+    private interface TextCheck {
+        boolean allows(String text);
+    }
+}
@@ -0,0 +1,262 @@
+package lcm.java.swing;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.Window;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.swing.JComponent;
+import javax.swing.JFrame;
+import javax.swing.JRootPane;
+import javax.swing.RepaintManager;
+import javax.swing.RootPaneContainer;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Drop-in {@link RepaintManager} that records repaint statistics, for finding expensive painters.
+ * <P>
+ * For each component class and each top-level window, it counts the repaint requests, sums their dirty area
+ * and estimates the paint time. As Swing paints all dirty regions together, the time of each painting pass is
+ * split among the classes and windows by their share of the dirty area in it.
+ * The overhead is a few map updates per repaint request, so it can be used on staging environments.
+ * <P>
+ * Optionally, an overlay can display the recently repainted areas of a frame as a heat map.
+ */
+public class InstrumentedRepaintManager extends RepaintManager {
+
+    /** How long repainted areas stay on the heat map overlay. */
+    private static final int OVERLAY_MEMORY_MILLIS = 2000;
+
+    /** Maximum number of repainted areas kept for the overlay of each frame. */
+    private static final int OVERLAY_MAX_AREAS = 500;
+
+    private final Map<String, PaintStats> byComponentClass = new HashMap<>();
+    private final Map<Window, PaintStats> byWindow = new WeakHashMap<>();
+    private final Map<PaintStats, Long> pendingByClass = new HashMap<>();
+    private final Map<PaintStats, Long> pendingByWindow = new HashMap<>();
+
+    /**
+     * Creates an instrumented manager and sets it as the current repaint manager.
+     * @return the installed manager.
+     */
+    public static InstrumentedRepaintManager install() {
+        InstrumentedRepaintManager manager = new InstrumentedRepaintManager();
+        RepaintManager.setCurrentManager(manager);
+        return manager;
+    }
+
+    /**
+     * Restores the default repaint manager (statistics are kept).
+     */
+    public void uninstall() {
+        if (RepaintManager.currentManager(null) == this)
+            RepaintManager.setCurrentManager(null);
+    }
+
+    @Override
+    public void addDirtyRegion(JComponent c, int x, int y, int w, int h) {
+        if (!(c instanceof HeatMapOverlay) && w > 0 && h > 0)
+            record(c, c.getClass().getName(), SwingUtilities.getWindowAncestor(c), new Rectangle(x, y, w, h));
+        super.addDirtyRegion(c, x, y, w, h);
+    }
+
+    @Override
+    public void addDirtyRegion(Window window, int x, int y, int w, int h) {
+        if (w > 0 && h > 0)
+            record(window, window.getClass().getName(), window, new Rectangle(x, y, w, h));
+        super.addDirtyRegion(window, x, y, w, h);
+    }
+
+    @Override
+    public void paintDirtyRegions() {
+        long start = System.nanoTime();
+        super.paintDirtyRegions();
+        long elapsed = System.nanoTime() - start;
+        synchronized (this) {
+            distribute(pendingByClass, elapsed);
+            distribute(pendingByWindow, elapsed);
+        }
+    }
+
+    /** Splits the paint time among the pending statistics, by their share of the dirty area. */
+    private static void distribute(Map<PaintStats, Long> pending, long elapsed) {
+        long totalArea = 0;
+        for (long area : pending.values())
+            totalArea += area;
+        if (totalArea > 0) {
+            for (Map.Entry<PaintStats, Long> stats : pending.entrySet())
+                stats.getKey().paintNanos += elapsed * stats.getValue() / totalArea;
+        }
+        pending.clear();
+    }
+
+    /**
+     * Gets the statistics for each component class (by its name) that requested repaints.
+     * @return a snapshot of the statistics.
+     */
+    public synchronized Map<String, PaintStats> getStatsByComponentClass() {
+        Map<String, PaintStats> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<String, PaintStats> stats : byComponentClass.entrySet())
+            snapshot.put(stats.getKey(), stats.getValue().copy());
+        return snapshot;
+    }
+
+    /**
+     * Gets the statistics for each top-level window (components not in a window are not counted here).
+     * @return a snapshot of the statistics.
+     */
+    public synchronized Map<Window, PaintStats> getStatsByWindow() {
+        Map<Window, PaintStats> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<Window, PaintStats> stats : byWindow.entrySet())
+            snapshot.put(stats.getKey(), stats.getValue().copy());
+        return snapshot;
+    }
+
+    /**
+     * Discards all the statistics collected so far.
+     */
+    public synchronized void reset() {
+        byComponentClass.clear();
+        byWindow.clear();
+        pendingByClass.clear();
+        pendingByWindow.clear();
+    }
+
+    /**
+     * Displays the recently repainted areas of the given frame as a heat map, over its contents.
+     * The frame's glass pane is replaced by the overlay, which is kept as a client property of the frame's root pane,
+     * so it goes away with the frame.
+     * @param frame - The frame to have its repaints displayed.
+     */
+    public void installOverlay(JFrame frame) {
+        HeatMapOverlay overlay = new HeatMapOverlay();
+        frame.getRootPane().putClientProperty(this, overlay);
+        frame.setGlassPane(overlay);
+        overlay.setVisible(true);
+    }
+
+    private synchronized void record(Component component, String className, Window window, Rectangle region) {
+        long area = (long) region.width * region.height;
+        PaintStats classStats = byComponentClass.computeIfAbsent(className, k -> new PaintStats());
+        classStats.add(area);
+        pendingByClass.merge(classStats, area, Long::sum);
+        if (window != null) {
+            PaintStats windowStats = byWindow.computeIfAbsent(window, k -> new PaintStats());
+            windowStats.add(area);
+            pendingByWindow.merge(windowStats, area, Long::sum);
+            JRootPane rootPane = window instanceof RootPaneContainer ? ((RootPaneContainer) window).getRootPane() : null;
+            Object overlay = rootPane == null ? null : rootPane.getClientProperty(this);
+            if (overlay instanceof HeatMapOverlay)
+                ((HeatMapOverlay) overlay).add(SwingUtilities.convertRectangle(component, region, (HeatMapOverlay) overlay));
+        }
+    }
+
+    /**
+     * Repaint statistics of a component class or window.
+     */
+    public static final class PaintStats {
+        private long requestCount;
+        private long dirtyArea;
+        private long paintNanos;
+
+        private void add(long area) {
+            requestCount++;
+            dirtyArea += area;
+        }
+
+        private PaintStats copy() {
+            PaintStats copy = new PaintStats();
+            copy.requestCount = requestCount;
+            copy.dirtyArea = dirtyArea;
+            copy.paintNanos = paintNanos;
+            return copy;
+        }
+
+        /**
+         * Gets the number of repaint requests.
+         * @return the request count.
+         */
+        public long getRequestCount() {
+            return requestCount;
+        }
+
+        /**
+         * Gets the total area of the requested repaints (overlapping requests are all summed).
+         * @return the dirty area in pixels.
+         */
+        public long getDirtyArea() {
+            return dirtyArea;
+        }
+
+        /**
+         * Gets the estimated time spent painting the requested areas.
+         * @return the paint time in nanoseconds.
+         */
+        public long getPaintNanos() {
+            return paintNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "requests=" + requestCount + ", dirtyArea=" + dirtyArea + ", paintMillis=" + paintNanos / 1_000_000;
+        }
+    }
+
+    /**
+     * Transparent glass pane drawing the recently repainted areas, where overlapping areas get "hotter".
+     */
+    private static class HeatMapOverlay extends JComponent {
+        private static final long serialVersionUID = 1L;
+        private static final Color HEAT = new Color(255, 0, 0, 20);
+
+        private final Deque<Rectangle> areas = new ArrayDeque<>();
+        private final Deque<Long> times = new ArrayDeque<>();
+
+        private final Timer fading = new Timer(OVERLAY_MEMORY_MILLIS / 4, e -> repaint());
+
+        private HeatMapOverlay() {
+            setOpaque(false);
+        }
+
+        @Override
+        public void addNotify() {
+            super.addNotify();
+            fading.start();
+        }
+
+        @Override
+        public void removeNotify() {
+            fading.stop();
+            super.removeNotify();
+        }
+
+        private synchronized void add(Rectangle area) {
+            areas.addLast(area);
+            times.addLast(System.currentTimeMillis());
+            if (areas.size() > OVERLAY_MAX_AREAS) {
+                areas.removeFirst();
+                times.removeFirst();
+            }
+        }
+
+        @Override
+        protected synchronized void paintComponent(Graphics g) {
+            long oldest = System.currentTimeMillis() - OVERLAY_MEMORY_MILLIS;
+            while (!times.isEmpty() && times.peekFirst() < oldest) {
+                times.removeFirst();
+                areas.removeFirst();
+            }
+            g.setColor(HEAT);
+            for (Rectangle area : areas)
+                g.fillRect(area.x, area.y, area.width, area.height);
+        }
+    }
+}
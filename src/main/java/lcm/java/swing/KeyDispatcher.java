@@ -0,0 +1,243 @@
+package lcm.java.swing;
+
+import java.awt.Component;
+import java.awt.KeyEventDispatcher;
+import java.awt.KeyboardFocusManager;
+import java.awt.event.KeyEvent;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Central dispatcher of key bindings, replacing a key listener for each component and key.
+ * <P>
+ * A single {@link KeyEventDispatcher} receives all key presses, and finds the bindings for the focused component
+ * directly by the key code in a table, so the cost of each key event doesn't grow with the number of bindings.
+ * Each binding may be throttled or debounced, and may have its action run on an executor instead of the Event Dispatch Thread.
+ * <P>
+ * Bindings must be created and removed on the Event Dispatch Thread. They are kept by the components themselves
+ * (as a client property), so they are garbage collected along with them, even if their actions refer to the components.
+ */
+public class KeyDispatcher implements KeyEventDispatcher {
+
+    /** Key codes below this limit are looked up in an array, others in a map. */
+    private static final int TABLE_SIZE = 256;
+
+    /** Client property key of the bindings table of each component. */
+    private static final Object TABLE_KEY = KeyTable.class;
+
+    private KeyDispatcher() {}
+
+    /**
+     * Gets the dispatcher shared by the whole application, installing it on the first call.
+     * @return the default dispatcher.
+     */
+    public static KeyDispatcher getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Binds an action to a key being pressed while the given component has the focus.
+     * Many actions may be bound to the same component and key, and they run in the order they were bound.
+     *
+     * @param component - The component that must have the focus.
+     * @param keyCode - The key code (see {@link KeyEvent}) that triggers the action.
+     * @param action - The action to be run.
+     * @return the binding, which may be further configured or removed.
+     * @throws IllegalStateException if not called from the Event Dispatch Thread.
+     */
+    public Binding bind(JComponent component, int keyCode, Runnable action) {
+        checkEdt();
+        Binding binding = new Binding(component, keyCode, action);
+        KeyTable table = tableOf(component);
+        if (table == null) {
+            table = new KeyTable();
+            component.putClientProperty(TABLE_KEY, table);
+        }
+        table.add(binding);
+        return binding;
+    }
+
+    /**
+     * Removes all bindings of the given component.
+     * @param component - The component to have its bindings removed.
+     * @throws IllegalStateException if not called from the Event Dispatch Thread.
+     */
+    public void unbindAll(JComponent component) {
+        checkEdt();
+        component.putClientProperty(TABLE_KEY, null);
+    }
+
+    private static KeyTable tableOf(Component component) {
+        return component instanceof JComponent ? (KeyTable) ((JComponent) component).getClientProperty(TABLE_KEY) : null;
+    }
+
+    private static void checkEdt() {
+        if (!SwingUtilities.isEventDispatchThread())
+            throw new IllegalStateException("Key bindings must be changed on the Event Dispatch Thread.");
+    }
+
+    @Override
+    public boolean dispatchKeyEvent(KeyEvent e) {
+        if (e.getID() != KeyEvent.KEY_PRESSED)
+            return false;
+        KeyTable table = tableOf(e.getComponent());
+        if (table != null) {
+            for (Binding binding = table.get(e.getKeyCode()); binding != null; binding = binding.next)
+                binding.fire();
+        }
+        return false; // The event still reaches the component and its listeners.
+    }
+
+    /**
+     * Bindings of a component, indexed by key code.
+     */
+    private static class KeyTable {
+        private final Binding[] low = new Binding[TABLE_SIZE];
+        private Map<Integer, Binding> high;
+
+        private Binding get(int keyCode) {
+            if (keyCode >= 0 && keyCode < TABLE_SIZE)
+                return low[keyCode];
+            return high == null ? null : high.get(keyCode);
+        }
+
+        private void set(int keyCode, Binding first) {
+            if (keyCode >= 0 && keyCode < TABLE_SIZE) {
+                low[keyCode] = first;
+            } else {
+                if (high == null)
+                    high = new HashMap<>();
+                if (first == null)
+                    high.remove(keyCode);
+                else
+                    high.put(keyCode, first);
+            }
+        }
+
+        private void add(Binding binding) {
+            Binding first = get(binding.keyCode);
+            if (first == null) {
+                set(binding.keyCode, binding);
+            } else {
+                while (first.next != null)
+                    first = first.next;
+                first.next = binding;
+            }
+        }
+
+        private void remove(Binding binding) {
+            Binding first = get(binding.keyCode);
+            if (first == binding) {
+                set(binding.keyCode, binding.next);
+                return;
+            }
+            for (Binding previous = first; previous != null; previous = previous.next) {
+                if (previous.next == binding) {
+                    previous.next = binding.next;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * An action bound to a key for a component.
+     */
+    public final class Binding {
+        private final JComponent component;
+        private final int keyCode;
+        private final Runnable action;
+        private Binding next;
+
+        private long throttleMillis;
+        private long lastRun;
+        private Timer debounce;
+        private Executor executor;
+
+        private Binding(JComponent component, int keyCode, Runnable action) {
+            this.component = component;
+            this.keyCode = keyCode;
+            this.action = action;
+        }
+
+        /**
+         * Makes the action run at most once for each given interval, ignoring presses in between.
+         * @param millis - Minimum interval between runs.
+         * @return this binding, for chaining.
+         */
+        public Binding throttle(long millis) {
+            this.throttleMillis = millis;
+            return this;
+        }
+
+        /**
+         * Makes the action run only once the key stops being pressed for the given interval.
+         * @param millis - Interval without presses before the action runs.
+         * @return this binding, for chaining.
+         */
+        public Binding debounce(int millis) {
+            this.debounce = new Timer(millis, e -> run());
+            this.debounce.setRepeats(false);
+            return this;
+        }
+
+        /**
+         * Makes the action run on the given executor, instead of the Event Dispatch Thread.
+         * @param executor - The executor to run the action on (null to run it on the Event Dispatch Thread again).
+         * @return this binding, for chaining.
+         */
+        public Binding executeOn(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Removes this binding.
+         * @throws IllegalStateException if not called from the Event Dispatch Thread.
+         */
+        public void unbind() {
+            checkEdt();
+            if (debounce != null)
+                debounce.stop();
+            KeyTable table = tableOf(component);
+            if (table != null)
+                table.remove(this);
+        }
+
+        private void fire() {
+            if (throttleMillis > 0) {
+                long now = System.currentTimeMillis();
+                if (now - lastRun < throttleMillis)
+                    return;
+                lastRun = now;
+            }
+            if (debounce != null)
+                debounce.restart();
+            else
+                run();
+        }
+
+        private void run() {
+            if (executor != null)
+                executor.execute(action);
+            else
+                action.run();
+        }
+    }
+
+    /**
+     * Holds the default dispatcher, installed only when first needed.
+     */
+    private static class DefaultHolder {
+        private static final KeyDispatcher INSTANCE = new KeyDispatcher();
+
+        static {
+            KeyboardFocusManager.getCurrentKeyboardFocusManager().addKeyEventDispatcher(INSTANCE);
+        }
+    }
+}
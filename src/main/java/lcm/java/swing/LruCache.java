@@ -0,0 +1,46 @@
+package lcm.java.swing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Small thread-safe cache that keeps a bounded number of entries,
+ * evicting the least recently used one when the capacity is exceeded.
+ */
+class LruCache<K, V> {
+
+    private final LinkedHashMap<K, V> entries;
+
+    /**
+     * Constructor for the cache.
+     * @param capacity - Maximum number of entries kept.
+     */
+    LruCache(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
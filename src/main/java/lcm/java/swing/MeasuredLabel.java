@@ -0,0 +1,48 @@
+package lcm.java.swing;
+
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Insets;
+
+import javax.swing.JLabel;
+import javax.swing.plaf.basic.BasicHTML;
+
+/**
+ * JLabel whose preferred size is taken from the {@link TextMeasurer} cache.
+ * <P>
+ * Layouts ask for the preferred size of every component on each validation, which for labels means measuring their text again.
+ * This label measures each (font, text) pair once, which speeds up the layout of panels with many labels.
+ * Labels with icons or HTML texts, or with a preferred size set, are sized as usual.
+ */
+public class MeasuredLabel extends JLabel {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor for an empty label.
+     */
+    public MeasuredLabel() {
+        super();
+    }
+
+    /**
+     * Constructor for the label.
+     * @param text - Text to be displayed.
+     */
+    public MeasuredLabel(String text) {
+        super(text);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        String text = getText();
+        Font font = getFont();
+        if (isPreferredSizeSet() || getIcon() != null || font == null || text == null || text.isEmpty() || BasicHTML.isHTMLString(text))
+            return super.getPreferredSize();
+        FontMetrics metrics = getFontMetrics(font);
+        Insets insets = getInsets();
+        int width = TextMeasurer.measure(font, metrics.getFontRenderContext(), text).width;
+        return new Dimension(width + insets.left + insets.right, metrics.getHeight() + insets.top + insets.bottom);
+    }
+}
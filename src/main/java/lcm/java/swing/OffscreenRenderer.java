@@ -0,0 +1,237 @@
+package lcm.java.swing;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Helper class for painting components into images, without a display (it also works on headless environments).
+ * <P>
+ * Besides rendering, it measures the painting time and allocation of components,
+ * and compares rendered images against "golden" images, so changes in painting code can be checked
+ * for both speed and pixel differences (see {@link #compareToGolden(BufferedImage, File, int)}).
+ */
+public class OffscreenRenderer {
+
+    /** Format of the golden and diff images. */
+    private static final String IMAGE_FORMAT = "png";
+
+    /** Color of the pixels that differ in the diff images. */
+    private static final int DIFF_COLOR = 0xFFFF0000;
+
+    /** Paints done before measuring, so the measurement isn't affected by class loading and caches warming up. */
+    private static final int WARMUP_PAINTS = 20;
+
+    private OffscreenRenderer() {}
+
+    /**
+     * Lays out the given component with the given size, without needing it to be displayed.
+     * All inner containers are also laid out.
+     *
+     * @param component - The component to be laid out.
+     * @param width - The component width.
+     * @param height - The component height.
+     */
+    public static void layout(Component component, int width, int height) {
+        component.setSize(width, height);
+        layoutTree(component);
+    }
+
+    private static void layoutTree(Component component) {
+        if (component instanceof Container) {
+            Container container = (Container) component;
+            container.doLayout();
+            for (Component child : container.getComponents())
+                layoutTree(child);
+        }
+    }
+
+    /**
+     * Lays out and paints the given component into a new image of the given size.
+     *
+     * @param component - The component to be rendered.
+     * @param width - The image (and component) width.
+     * @param height - The image (and component) height.
+     * @return the image with the rendered component.
+     */
+    public static BufferedImage render(Component component, int width, int height) {
+        layout(component, width, height);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        paint(component, image);
+        return image;
+    }
+
+    private static void paint(Component component, BufferedImage image) {
+        Graphics2D g = image.createGraphics();
+        try {
+            component.printAll(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * Measures how long it takes, and how much memory it allocates, to paint the given component.
+     * The component is laid out once, and then painted repeatedly into the same image.
+     *
+     * @param component - The component to be painted.
+     * @param width - The component width.
+     * @param height - The component height.
+     * @param paints - How many times to paint the component (besides some warmup paints).
+     * @return the measurement.
+     */
+    public static PaintMeasurement measure(Component component, int width, int height, int paints) {
+        layout(component, width, height);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int i = 0; i < WARMUP_PAINTS; i++)
+            paint(component, image);
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < paints; i++)
+            paint(component, image);
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        return new PaintMeasurement(paints, elapsed, allocatedBefore < 0 ? -1 : allocated);
+    }
+
+    /**
+     * Counts how many pixels differ between two images of the same size.
+     *
+     * @param expected - The expected image.
+     * @param actual - The image to be compared.
+     * @param tolerance - Maximum difference allowed for each color channel (0 for exact comparisons).
+     * @return the number of different pixels (all pixels, if the images sizes differ).
+     */
+    public static int countDifferences(BufferedImage expected, BufferedImage actual, int tolerance) {
+        return diff(expected, actual, tolerance, null);
+    }
+
+    /**
+     * Compares a rendered image against a golden image file (see {@link #writeGolden(BufferedImage, File)}).
+     * If there are differences, an image highlighting them is saved next to the golden file (with the suffix ".diff.png").
+     *
+     * @param actual - The rendered image.
+     * @param golden - The golden image file (PNG).
+     * @param tolerance - Maximum difference allowed for each color channel (0 for exact comparisons).
+     * @return the number of different pixels.
+     * @throws IllegalArgumentException if the golden file doesn't exist, or the golden or diff files can't be read or written.
+     */
+    public static int compareToGolden(BufferedImage actual, File golden, int tolerance) {
+        if (!golden.isFile())
+            throw new IllegalArgumentException("Golden image not found: " + golden);
+        try {
+            BufferedImage expected = ImageIO.read(golden);
+            BufferedImage diffImage = new BufferedImage(actual.getWidth(), actual.getHeight(), BufferedImage.TYPE_INT_ARGB);
+            int differences = diff(expected, actual, tolerance, diffImage);
+            if (differences > 0)
+                ImageIO.write(diffImage, IMAGE_FORMAT, new File(golden.getPath() + ".diff." + IMAGE_FORMAT));
+            return differences;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error while trying to compare with golden image " + golden, e);
+        }
+    }
+
+    /**
+     * Saves a rendered image as a golden image, to be compared against later with {@link #compareToGolden(BufferedImage, File, int)}.
+     * Any existing golden image in the file is replaced.
+     *
+     * @param image - The rendered image.
+     * @param golden - The golden image file (PNG) to be written.
+     * @throws IllegalArgumentException if the golden file can't be written.
+     */
+    public static void writeGolden(BufferedImage image, File golden) {
+        try {
+            ImageIO.write(image, IMAGE_FORMAT, golden);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error while trying to write golden image " + golden, e);
+        }
+    }
+
+    private static int diff(BufferedImage expected, BufferedImage actual, int tolerance, BufferedImage diffImage) {
+        int width = actual.getWidth();
+        int height = actual.getHeight();
+        if (expected == null || expected.getWidth() != width || expected.getHeight() != height)
+            return width * height;
+        int differences = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int a = expected.getRGB(x, y);
+                int b = actual.getRGB(x, y);
+                if (channelDistance(a, b) > tolerance) {
+                    differences++;
+                    if (diffImage != null)
+                        diffImage.setRGB(x, y, DIFF_COLOR);
+                } else if (diffImage != null) {
+                    diffImage.setRGB(x, y, (b & 0x00FFFFFF) | 0x40000000); // Equal pixels are kept faded.
+                }
+            }
+        }
+        return differences;
+    }
+
+    private static int channelDistance(int a, int b) {
+        int distance = 0;
+        for (int shift = 0; shift < 32; shift += 8)
+            distance = Math.max(distance, Math.abs(((a >>> shift) & 0xFF) - ((b >>> shift) & 0xFF)));
+        return distance;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        return -1;
+    }
+
+    /**
+     * Result of measuring the painting of a component.
+     */
+    public static final class PaintMeasurement {
+        private final int paints;
+        private final long elapsedNanos;
+        private final long allocatedBytes;
+
+        private PaintMeasurement(int paints, long elapsedNanos, long allocatedBytes) {
+            this.paints = paints;
+            this.elapsedNanos = elapsedNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        /**
+         * Gets the average time of each paint.
+         * @return the time per paint in nanoseconds.
+         */
+        public long getNanosPerPaint() {
+            return elapsedNanos / Math.max(1, paints);
+        }
+
+        /**
+         * Gets how many paints would be done in a second, on average.
+         * @return the paint throughput.
+         */
+        public double getPaintsPerSecond() {
+            return paints * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        /**
+         * Gets the average memory allocated by each paint.
+         * @return the bytes allocated per paint, or -1 if the JVM can't measure allocations.
+         */
+        public long getBytesPerPaint() {
+            return allocatedBytes < 0 ? -1 : allocatedBytes / Math.max(1, paints);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.1f paints/s, %d ns/paint, %d bytes/paint", getPaintsPerSecond(), getNanosPerPaint(), getBytesPerPaint());
+        }
+    }
+}
@@ -1,23 +1,180 @@
 package lcm.java.swing;
 
-import java.awt.Window;
-import java.awt.Dimension;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
+import java.awt.Insets;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.Toolkit;
+import java.awt.Window;
+import java.awt.geom.AffineTransform;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
 
 
 /**
  * Helper class for dealing with screen/monitor properties.
+ * <P>
+ * The monitors (their bounds, insets and scaling) are read once and cached, so the methods here are cheap to call repeatedly.
+ * A background daemon thread checks every few seconds if the display configuration changed (monitors plugged,
+ * resolution or taskbar changes), refreshing the cache and notifying the change listeners when it does.
+ * On headless environments, the methods throw java.awt.HeadlessException.
  */
 public class Screen {
 
+	/** Interval between checks for display configuration changes. */
+	private static final long POLLING_INTERVAL_MILLIS = 2000;
+
+	/** Density of a monitor without scaling. */
+	private static final int BASE_DPI = 96;
+
+	private static final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+	private static volatile List<Monitor> monitors;
+	private static ScheduledExecutorService poller;
+
+	/**
+	 * Properties of a monitor, as they were when the display configuration was last read.
+	 */
+	public static final class Monitor {
+		private final GraphicsDevice device;
+		private final Rectangle bounds;
+		private final Insets insets;
+		private final double scaleX;
+		private final double scaleY;
+		private final boolean primary;
+
+		private Monitor(GraphicsDevice device, boolean primary) {
+			GraphicsConfiguration configuration = device.getDefaultConfiguration();
+			AffineTransform transform = configuration.getDefaultTransform();
+			this.device = device;
+			this.bounds = configuration.getBounds();
+			this.insets = Toolkit.getDefaultToolkit().getScreenInsets(configuration);
+			this.scaleX = transform.getScaleX();
+			this.scaleY = transform.getScaleY();
+			this.primary = primary;
+		}
+
+		/**
+		 * Gets the graphics device of this monitor.
+		 * @return the device.
+		 */
+		public GraphicsDevice getDevice() {
+			return device;
+		}
+
+		/**
+		 * Gets the position and size of this monitor on the virtual screen, in pixels (scaled by Java, if it's a HiDPI monitor).
+		 * @return a copy of the monitor bounds.
+		 */
+		public Rectangle getBounds() {
+			return new Rectangle(bounds);
+		}
+
+		/**
+		 * Gets the space taken by taskbars and docks on each border of this monitor.
+		 * @return a copy of the monitor insets.
+		 */
+		public Insets getInsets() {
+			return (Insets) insets.clone();
+		}
+
+		/**
+		 * Gets the bounds of this monitor without its insets, where windows are usually placed.
+		 * @return the usable bounds.
+		 */
+		public Rectangle getUsableBounds() {
+			return new Rectangle(bounds.x + insets.left, bounds.y + insets.top,
+					bounds.width - insets.left - insets.right, bounds.height - insets.top - insets.bottom);
+		}
+
+		/**
+		 * Gets the horizontal scaling applied by Java to this monitor (1 when it's not a HiDPI monitor).
+		 * @return the horizontal scale.
+		 */
+		public double getScaleX() {
+			return scaleX;
+		}
+
+		/**
+		 * Gets the vertical scaling applied by Java to this monitor (1 when it's not a HiDPI monitor).
+		 * @return the vertical scale.
+		 */
+		public double getScaleY() {
+			return scaleY;
+		}
+
+		/**
+		 * Gets the density of this monitor, considering its scaling.
+		 * @return the dots per inch.
+		 */
+		public int getDpi() {
+			return (int) Math.round(BASE_DPI * scaleY);
+		}
+
+		/**
+		 * Tells if this is the primary (default) monitor.
+		 * @return true for the primary monitor.
+		 */
+		public boolean isPrimary() {
+			return primary;
+		}
+
+		/**
+		 * Gets the number of pixels needed for the given percentage of this monitor's width.
+		 * @param percentage - Proportion of the monitor to have the horizontal pixels counted.
+		 * @return monitor portion width in pixels, rounded for the given percentage.
+		 */
+		public int getRelativeWidth(float percentage) {
+			return Math.round(percentage * bounds.width / 100);
+		}
+
+		/**
+		 * Gets the number of pixels needed for the given percentage of this monitor's height.
+		 * @param percentage - Proportion of the monitor to have the vertical pixels counted.
+		 * @return monitor portion height in pixels, rounded for the given percentage.
+		 */
+		public int getRelativeHeight(float percentage) {
+			return Math.round(percentage * bounds.height / 100);
+		}
+
+		private boolean sameAs(Monitor other) {
+			return device.getIDstring().equals(other.device.getIDstring()) && bounds.equals(other.bounds)
+					&& insets.equals(other.insets) && scaleX == other.scaleX && scaleY == other.scaleY && primary == other.primary;
+		}
+
+		@Override
+		public String toString() {
+			return "Monitor[id=" + device.getIDstring() + ", bounds=" + bounds + ", insets=" + insets
+					+ ", scale=" + scaleX + "x" + scaleY + (primary ? ", primary" : "") + "]";
+		}
+	}
 
     /**
-     * Positions the given window component at the center of the screen.
+     * Positions the given window component at the center of the primary screen.
 	 * @param window - Window to be moved to the center of the screen.
+	 * @see #centralizeOnCurrentMonitor(Window)
      */
     public static void centralizeWindow(Window window) {
-		Dimension dim = Toolkit.getDefaultToolkit().getScreenSize();
-		window.setLocation(dim.width/2 - window.getSize().width/2, dim.height/2 - window.getSize().height/2);
+		Rectangle bounds = getPrimaryMonitor().bounds;
+		window.setLocation(bounds.x + bounds.width/2 - window.getSize().width/2, bounds.y + bounds.height/2 - window.getSize().height/2);
+	}
+
+	/**
+	 * Positions the given window at the center of the monitor it's currently on (the one with most of its area),
+	 * not considering the space taken by taskbars.
+	 * @param window - Window to be moved to the center of its monitor.
+	 */
+	public static void centralizeOnCurrentMonitor(Window window) {
+		Rectangle bounds = getMonitorOf(window).getUsableBounds();
+		window.setLocation(bounds.x + bounds.width/2 - window.getWidth()/2, bounds.y + bounds.height/2 - window.getHeight()/2);
 	}
 	
     /**
@@ -25,7 +182,7 @@ public class Screen {
 	 * @return screen width in pixels.
 	 */
 	public static int getScreenWidth() {
-		return (int) Toolkit.getDefaultToolkit().getScreenSize().getWidth();
+		return getPrimaryMonitor().bounds.width;
 	}
 	
     /**
@@ -33,7 +190,7 @@ public class Screen {
 	 * @return screen height in pixels.
 	 */
 	public static int getScreenHeight() {
-		return (int) Toolkit.getDefaultToolkit().getScreenSize().getHeight();
+		return getPrimaryMonitor().bounds.height;
 	}
 	
 	/**
@@ -42,7 +199,7 @@ public class Screen {
 	 * @return screen portion width in pixels, rounded for the given percentage.
 	 */
 	public static int getRelativeWidth(float percentage) {
-		return Math.round(percentage * getScreenWidth() / 100);
+		return getPrimaryMonitor().getRelativeWidth(percentage);
 	}
 	
 	/**
@@ -51,7 +208,148 @@ public class Screen {
 	 * @return screen portion height in pixels, rounded for the given percentage.
 	 */
 	public static int getRelativeHeight(float percentage) {
-		return Math.round(percentage * getScreenHeight() / 100);
+		return getPrimaryMonitor().getRelativeHeight(percentage);
+	}
+
+	/**
+	 * Gets all the monitors, the primary one first.
+	 * @return an unmodifiable list of the monitors.
+	 */
+	public static List<Monitor> getMonitors() {
+		List<Monitor> current = monitors;
+		if (current == null) {
+			synchronized (Screen.class) {
+				if (monitors == null) {
+					monitors = readMonitors();
+					startPolling();
+				}
+				current = monitors;
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Gets the primary (default) monitor.
+	 * @return the primary monitor.
+	 */
+	public static Monitor getPrimaryMonitor() {
+		return getMonitors().get(0);
+	}
+
+	/**
+	 * Gets the monitor containing the given point of the virtual screen.
+	 * @param point - The point, in screen coordinates.
+	 * @return the monitor containing the point, or the primary monitor if no monitor contains it.
+	 */
+	public static Monitor getMonitorAt(Point point) {
+		for (Monitor monitor : getMonitors()) {
+			if (monitor.bounds.contains(point))
+				return monitor;
+		}
+		return getPrimaryMonitor();
+	}
+
+	/**
+	 * Gets the monitor the given window is on. For windows over more than one monitor, it's the one with most of the window's area.
+	 * @param window - The window.
+	 * @return the window's monitor, or the primary monitor if the window isn't on any monitor.
+	 */
+	public static Monitor getMonitorOf(Window window) {
+		Rectangle windowBounds = window.getBounds();
+		Monitor best = null;
+		long bestArea = 0;
+		for (Monitor monitor : getMonitors()) {
+			Rectangle intersection = monitor.bounds.intersection(windowBounds);
+			long area = intersection.isEmpty() ? 0 : (long) intersection.width * intersection.height;
+			if (area > bestArea) {
+				best = monitor;
+				bestArea = area;
+			}
+		}
+		return best != null ? best : getMonitorAt(windowBounds.getLocation());
+	}
+
+	/**
+	 * Adds a listener to be called (on the Event Dispatch Thread) when the display configuration changes.
+	 * By the time it's called, the methods of this class already return the new configuration.
+	 * Errors while checking for changes are reported to the default uncaught exception handler
+	 * (see {@link Thread#setDefaultUncaughtExceptionHandler}), and the checking goes on.
+	 * @param listener - The listener to be called.
+	 */
+	public static void addChangeListener(Runnable listener) {
+		changeListeners.add(listener);
+		getMonitors(); // Makes sure changes are being checked.
+	}
+
+	/**
+	 * Removes a listener added with {@link #addChangeListener(Runnable)}.
+	 * @param listener - The listener to be removed.
+	 */
+	public static void removeChangeListener(Runnable listener) {
+		changeListeners.remove(listener);
+	}
+
+	/**
+	 * Reads the display configuration again, without waiting for the next automatic check,
+	 * notifying the change listeners if it changed.
+	 */
+	public static void refresh() {
+		List<Monitor> current;
+		List<Monitor> updated = readMonitors();
+		synchronized (Screen.class) {
+			current = monitors;
+			if (current != null && sameMonitors(current, updated))
+				return;
+			monitors = updated;
+			if (current == null) {
+				startPolling();
+				return;
+			}
+		}
+		for (Runnable listener : changeListeners)
+			SwingUtilities.invokeLater(listener);
+	}
+
+	private static List<Monitor> readMonitors() {
+		GraphicsEnvironment environment = GraphicsEnvironment.getLocalGraphicsEnvironment();
+		GraphicsDevice primary = environment.getDefaultScreenDevice();
+		List<Monitor> read = new ArrayList<>();
+		read.add(new Monitor(primary, true));
+		for (GraphicsDevice device : environment.getScreenDevices()) {
+			if (device != primary && device.getType() == GraphicsDevice.TYPE_RASTER_SCREEN)
+				read.add(new Monitor(device, false));
+		}
+		return Collections.unmodifiableList(read);
+	}
+
+	private static boolean sameMonitors(List<Monitor> a, List<Monitor> b) {
+		if (a.size() != b.size())
+			return false;
+		for (int i = 0; i < a.size(); i++) {
+			if (!a.get(i).sameAs(b.get(i)))
+				return false;
+		}
+		return true;
+	}
+
+	private static void startPolling() {
+		if (poller != null)
+			return;
+		poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Screen-poller");
+			thread.setDaemon(true);
+			return thread;
+		});
+		poller.scheduleWithFixedDelay(() -> {
+			try {
+				refresh();
+			} catch (RuntimeException e) {
+				// Reported like any uncaught error, but the polling goes on, as the next configuration may be readable.
+				Thread thread = Thread.currentThread();
+				thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+			}
+		}, POLLING_INTERVAL_MILLIS, POLLING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
 	}
     
 }
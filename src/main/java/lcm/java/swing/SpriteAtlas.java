@@ -0,0 +1,279 @@
+package lcm.java.swing;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.imageio.ImageIO;
+import javax.swing.Icon;
+
+/**
+ * Packs many small images (such as toolbar icons) into a single shared image (an "atlas").
+ * Instead of keeping one raster per icon, the atlas keeps only one big image,
+ * and hands out lightweight icons that paint their own sub-rectangle of it.
+ * <P>
+ * An atlas can be built from resources or from a directory, and can be saved to an image file
+ * plus an index file (a properties file with the rectangle and packing order of each icon), so it can be
+ * built once (at build time or on the first run) and then reused with {@link #load(File, File)}.
+ */
+public class SpriteAtlas {
+
+    /** Empty pixels between packed images, to avoid bleeding when they are scaled. */
+    private static final int PADDING = 1;
+
+    /** Format used to save the atlas image. */
+    private static final String IMAGE_FORMAT = "png";
+
+    private final BufferedImage atlas;
+    private final Map<String, Rectangle> regions;
+    private final Map<String, Icon> icons = new LinkedHashMap<>();
+
+    private SpriteAtlas(BufferedImage atlas, Map<String, Rectangle> regions) {
+        this.atlas = atlas;
+        this.regions = regions;
+    }
+
+    /**
+     * Builds an atlas from the given resources (paths may be relative inside the JAR).
+     * Each icon will be named after its resource path.
+     *
+     * @param resources - Paths for the image resources to be packed.
+     * @return the atlas with all the given images.
+     * @throws IllegalArgumentException if any of the resources can't be read.
+     */
+    public static SpriteAtlas fromResources(String... resources) {
+        Map<String, Image> images = new LinkedHashMap<>();
+        for (String resource : resources)
+            images.put(resource, Images.getImageFromResource(resource));
+        return pack(images);
+    }
+
+    /**
+     * Builds an atlas from all the images found in the given directory (not recursive).
+     * Each icon will be named after its file name. Files that are not images are ignored.
+     *
+     * @param directory - Directory containing the images to be packed.
+     * @return the atlas with all the images found.
+     * @throws IllegalArgumentException if the directory can't be listed or an image can't be read.
+     */
+    public static SpriteAtlas fromDirectory(File directory) {
+        File[] files = directory.listFiles(File::isFile);
+        if (files == null)
+            throw new IllegalArgumentException("Error while trying to list images from directory " + directory);
+        Map<String, Image> images = new LinkedHashMap<>();
+        for (File file : files) {
+            try {
+                BufferedImage image = ImageIO.read(file);
+                if (image != null)
+                    images.put(file.getName(), image);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Error while trying to get image from file " + file, e);
+            }
+        }
+        return pack(images);
+    }
+
+    /**
+     * Packs the given images into a new atlas.
+     * Images are placed in rows ("shelves"), from the tallest to the shortest,
+     * inside a square-ish area big enough to hold all of them.
+     *
+     * @param images - Images to be packed, mapped by the names used to retrieve their icons.
+     * @return the atlas with all the given images.
+     */
+    public static SpriteAtlas pack(Map<String, ? extends Image> images) {
+        List<String> names = new ArrayList<>(images.keySet());
+        Collections.sort(names, (a, b) -> images.get(b).getHeight(null) - images.get(a).getHeight(null));
+
+        long area = 0;
+        int widest = 1;
+        for (Image image : images.values()) {
+            int w = image.getWidth(null) + PADDING;
+            area += (long) w * (image.getHeight(null) + PADDING);
+            widest = Math.max(widest, w);
+        }
+        int maxWidth = Math.max(widest, (int) Math.ceil(Math.sqrt(area)));
+
+        Map<String, Rectangle> regions = new LinkedHashMap<>();
+        int x = 0, y = 0, shelfHeight = 0, atlasWidth = 1;
+        for (String name : names) {
+            Image image = images.get(name);
+            int w = image.getWidth(null);
+            int h = image.getHeight(null);
+            if (x + w > maxWidth) {
+                x = 0;
+                y += shelfHeight + PADDING;
+                shelfHeight = 0;
+            }
+            regions.put(name, new Rectangle(x, y, w, h));
+            x += w + PADDING;
+            shelfHeight = Math.max(shelfHeight, h);
+            atlasWidth = Math.max(atlasWidth, x);
+        }
+        int atlasHeight = Math.max(1, y + shelfHeight);
+
+        BufferedImage atlas = new BufferedImage(atlasWidth, atlasHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        try {
+            for (Map.Entry<String, Rectangle> region : regions.entrySet())
+                g.drawImage(images.get(region.getKey()), region.getValue().x, region.getValue().y, null);
+        } finally {
+            g.dispose();
+        }
+        return new SpriteAtlas(atlas, regions);
+    }
+
+    /**
+     * Loads an atlas previously saved with {@link #save(File, File)}.
+     *
+     * @param imageFile - The atlas image file.
+     * @param indexFile - The index file with the icons' rectangles.
+     * @return the loaded atlas.
+     * @throws IllegalArgumentException if any of the files can't be read or the index is malformed.
+     */
+    public static SpriteAtlas load(File imageFile, File indexFile) {
+        try (InputStream index = new FileInputStream(indexFile)) {
+            BufferedImage atlas = ImageIO.read(imageFile);
+            if (atlas == null)
+                throw new IllegalArgumentException("Unsupported atlas image format: " + imageFile);
+            Properties properties = new Properties();
+            properties.load(index);
+            // Properties have no order, so the names are sorted back by the packing order saved with each entry.
+            Map<String, int[]> entries = new HashMap<>();
+            for (String name : properties.stringPropertyNames())
+                entries.put(name, parseEntry(properties.getProperty(name)));
+            List<String> names = new ArrayList<>(entries.keySet());
+            names.sort(Comparator.comparingInt((String name) -> entries.get(name)[4])
+                    .thenComparingInt(name -> entries.get(name)[1])
+                    .thenComparingInt(name -> entries.get(name)[0]));
+            Map<String, Rectangle> regions = new LinkedHashMap<>();
+            for (String name : names) {
+                int[] entry = entries.get(name);
+                regions.put(name, new Rectangle(entry[0], entry[1], entry[2], entry[3]));
+            }
+            return new SpriteAtlas(atlas, regions);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error while trying to load atlas from " + imageFile + " and " + indexFile, e);
+        }
+    }
+
+    /**
+     * Saves this atlas into an image file (PNG) and an index file, to be later reused with {@link #load(File, File)}.
+     *
+     * @param imageFile - The file to write the atlas image to.
+     * @param indexFile - The file to write the icons' rectangles to.
+     * @throws IllegalArgumentException if any of the files can't be written.
+     */
+    public void save(File imageFile, File indexFile) {
+        Properties properties = new Properties();
+        int order = 0;
+        for (Map.Entry<String, Rectangle> region : regions.entrySet()) {
+            Rectangle r = region.getValue();
+            properties.setProperty(region.getKey(), r.x + "," + r.y + "," + r.width + "," + r.height + "," + order++);
+        }
+        try (OutputStream index = new FileOutputStream(indexFile)) {
+            ImageIO.write(atlas, IMAGE_FORMAT, imageFile);
+            properties.store(index, "Sprite atlas index: name=x,y,width,height,order");
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error while trying to save atlas to " + imageFile + " and " + indexFile, e);
+        }
+    }
+
+    /**
+     * Gets the icon for the given name. Icons are lightweight: they share the atlas image and are cached.
+     *
+     * @param name - The name of the packed image (its resource path or file name).
+     * @return the icon painting the image's region of the atlas.
+     * @throws IllegalArgumentException if there is no image with the given name in this atlas.
+     */
+    public synchronized Icon getIcon(String name) {
+        Icon icon = icons.get(name);
+        if (icon == null) {
+            Rectangle region = regions.get(name);
+            if (region == null)
+                throw new IllegalArgumentException("No image named " + name + " in the atlas.");
+            icon = new AtlasIcon(region);
+            icons.put(name, icon);
+        }
+        return icon;
+    }
+
+    /**
+     * Gets the names of all the images packed in this atlas.
+     * @return the names, in packing order.
+     */
+    public List<String> getNames() {
+        return new ArrayList<>(regions.keySet());
+    }
+
+    /**
+     * Gets the shared image holding all the packed images.
+     * @return the atlas image.
+     */
+    public BufferedImage getAtlasImage() {
+        return atlas;
+    }
+
+    /**
+     * Parses an index entry into x, y, width, height and packing order.
+     * Entries saved without the order (by older versions) get order 0, so they are sorted by position,
+     * which is their packing order too (shelves from top to bottom, images from left to right).
+     */
+    private static int[] parseEntry(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 4 && parts.length != 5)
+            throw new IllegalArgumentException("Malformed atlas region: " + value);
+        int[] entry = new int[5];
+        try {
+            for (int i = 0; i < parts.length; i++)
+                entry[i] = Integer.parseInt(parts[i].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed atlas region: " + value, e);
+        }
+        return entry;
+    }
+
+    /**
+     * Icon that paints a sub-rectangle of the atlas, without keeping a raster of its own.
+     */
+    private class AtlasIcon implements Icon {
+        private final Rectangle region;
+
+        private AtlasIcon(Rectangle region) {
+            this.region = region;
+        }
+
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            g.drawImage(atlas, x, y, x + region.width, y + region.height,
+                    region.x, region.y, region.x + region.width, region.y + region.height, c);
+        }
+
+        @Override
+        public int getIconWidth() {
+            return region.width;
+        }
+
+        @Override
+        public int getIconHeight() {
+            return region.height;
+        }
+    }
+}
@@ -6,14 +6,25 @@ import java.awt.Container;
 import java.awt.Dimension;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
+import java.awt.GraphicsEnvironment;
 import java.awt.Image;
 import java.awt.event.KeyEvent;
-import java.awt.event.KeyListener;
 import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
@@ -23,32 +34,89 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTextField;
 import javax.swing.ScrollPaneConstants;
+import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
-import javax.swing.text.AbstractDocument;
-import javax.swing.text.AttributeSet;
-import javax.swing.text.BadLocationException;
-import javax.swing.text.DocumentFilter;
 
 /**
  * Helper class for building and manipulating various complex Swing components.
  */
 public class SwingComponents {
 	
+	/**
+	 * Value of {@link #DEFAULT_FONT} until it's assigned, meaning the font chosen for the display must be used.
+	 * It's a font of its own (not the shared {@link CustomFont#ARIAL_20}), so assigning any font to the field is noticed.
+	 */
+	private static final CustomFont UNSET_DEFAULT_FONT = new CustomFont("Arial", CustomFont.Style.PLAIN, 20);
+
     /**
-     * The default font to be used on the swing components.
-     * This font may not be automatically applied on all components, so it is public and available to be used manually if necessary.
-     * It takes into consideration the current display resolution to decide its size.
-     * Notice it is not final, so it can be changed if needed.
+     * The default font to be used on the swing components, if it was assigned.
+     * @deprecated The display is no longer queried when this class is loaded (which was slow, and failed on headless environments),
+     * so until assigned this field holds a plain Arial 20 regardless of the display.
+     * Use {@link #getDefaultFont()}, which chooses the font for the display, and {@link #setDefaultFont(CustomFont)}.
+     * Assigning this field still changes the font returned by {@link #getDefaultFont()}.
      */
-	public static CustomFont DEFAULT_FONT = Screen.getScreenHeight() > 1440 ? CustomFont.ARIAL_40 : CustomFont.ARIAL_20;
-
-	static {
-		javax.swing.UIManager.put("OptionPane.messageFont", DEFAULT_FONT);
-		javax.swing.UIManager.put("OptionPane.buttonFont", DEFAULT_FONT);
-		
-//		UIManager.put("Tree.closedIcon", new ImageIcon(SwingUtils.class.getResource("mais.jpg")));
-//		UIManager.put("Tree.openIcon", new ImageIcon(SwingUtils.class.getResource("menos.png")));
-//		UIManager.put("Tree.leafIcon", new ImageIcon(SwingUtils.class.getResource("dot.png")));
+	@Deprecated
+	public static volatile CustomFont DEFAULT_FONT = UNSET_DEFAULT_FONT;
+
+	private static volatile boolean defaultsInstalled;
+
+	/**
+	 * Lazy holder of the font chosen for the display, so the display is only queried when the default font is first needed.
+	 */
+	private static class DefaultFontHolder {
+		private static final CustomFont FONT = !GraphicsEnvironment.isHeadless() && Screen.getScreenHeight() > 1440
+				? CustomFont.ARIAL_40 : CustomFont.ARIAL_20;
+	}
+
+	/**
+     * Gets the default font to be used on the swing components.
+     * This font may not be automatically applied on all components, so it is available to be used manually if necessary.
+     * Unless changed with {@link #setDefaultFont(CustomFont)}, it's {@link CustomFont#ARIAL_40} for displays taller than 1440 pixels,
+     * and {@link CustomFont#ARIAL_20} otherwise (and on headless environments). The display is only queried on the first call.
+	 * @return the default font.
+	 */
+	@SuppressWarnings("deprecation")
+	public static CustomFont getDefaultFont() {
+		CustomFont font = DEFAULT_FONT;
+		return font != UNSET_DEFAULT_FONT ? font : DefaultFontHolder.FONT;
+	}
+
+	/**
+	 * Changes the default font to be used on the swing components.
+	 * If the UIManager defaults were already installed (see {@link #installDefaults()}), they are updated with the new font.
+	 * @param font - The new default font.
+	 */
+	@SuppressWarnings("deprecation")
+	public static void setDefaultFont(CustomFont font) {
+		DEFAULT_FONT = font;
+		synchronized (SwingComponents.class) {
+			if (defaultsInstalled)
+				putDefaults();
+		}
+	}
+
+	/**
+	 * Sets the default font on the UIManager for option panes (dialogs) messages and buttons.
+	 * It's called by the methods of this class and by the classes in this library that need it (such as {@link SystemTrayFrame}),
+	 * as the defaults used to be set when this class was loaded. Only the first call has any effect, so it can be called freely.
+	 */
+	public static void installDefaults() {
+		if (defaultsInstalled)
+			return;
+		synchronized (SwingComponents.class) {
+			if (!defaultsInstalled) {
+				putDefaults();
+				defaultsInstalled = true;
+			}
+		}
+	}
+
+	private static void putDefaults() {
+		CustomFont font = getDefaultFont();
+		UIManager.getDefaults().putDefaults(new Object[] {
+				"OptionPane.messageFont", font,
+				"OptionPane.buttonFont", font,
+		});
 	}
 	
     /**
@@ -58,6 +126,7 @@ public class SwingComponents {
      * @param color - The color to display.
 	 */
 	public static void setBackgroundColor(JPanel panel, Color color) {
+		installDefaults();
 		panel.setBackground(color);
 		for (Component component : panel.getComponents()) {
 			if (component instanceof JPanel)
@@ -77,6 +146,7 @@ public class SwingComponents {
      * @return The newly created JScrollPane.
      */
 	public static JScrollPane createScrollPane(Component content, int scrollSize) {
+		installDefaults();
 		JScrollPane scrollPane = new JScrollPane();
 		scrollPane.setViewportView(content);
 		scrollPane.getVerticalScrollBar().setPreferredSize(new Dimension(scrollSize, 0));
@@ -88,46 +158,62 @@ public class SwingComponents {
 	
     /**
 	 * Scales a checkbox size to be appropriate to its font size.
+	 * The scaled icons are shared by all checkboxes with the same font height, until the look and feel is changed.
      * @param checkbox - JCheckBox element to have its size scaled.
 	 */
 	public static void scaleCheckBoxIcon(JCheckBox checkbox){
-	    boolean previousState = checkbox.isSelected();
-	    checkbox.setSelected(false);
-	    FontMetrics boxFontMetrics =  checkbox.getFontMetrics(checkbox.getFont());
-	    Icon boxIcon = UIManager.getIcon("CheckBox.icon");
-	    BufferedImage boxImage = new BufferedImage(
-	        boxIcon.getIconWidth(), boxIcon.getIconHeight(), BufferedImage.TYPE_INT_ARGB
-	    );
-	    Graphics graphics = boxImage.createGraphics();
-	    try{
-	        boxIcon.paintIcon(checkbox, graphics, 0, 0);
-	    }finally{
-	        graphics.dispose();
+	    installDefaults();
+	    FontMetrics boxFontMetrics = checkbox.getFontMetrics(checkbox.getFont());
+	    Icon[] icons = CheckBoxIcons.get(boxFontMetrics.getHeight());
+	    checkbox.setIcon(icons[0]);
+	    checkbox.setSelectedIcon(icons[1]);
+	}
+
+	/**
+	 * Cache of the scaled checkbox icons (unselected and selected), by look and feel and font height.
+	 */
+	private static class CheckBoxIcons {
+	    private static final Map<String, Icon[]> cache = new ConcurrentHashMap<>();
+
+	    static {
+	        UIManager.addPropertyChangeListener(e -> {
+	            if ("lookAndFeel".equals(e.getPropertyName()))
+	                cache.clear();
+	        });
 	    }
-	    ImageIcon newBoxImage = new ImageIcon(boxImage);
-	    Image finalBoxImage = newBoxImage.getImage().getScaledInstance(
-	        boxFontMetrics.getHeight(), boxFontMetrics.getHeight(), Image.SCALE_SMOOTH
-	    );
-	    checkbox.setIcon(new ImageIcon(finalBoxImage));
-
-	    checkbox.setSelected(true);
-	    Icon checkedBoxIcon = UIManager.getIcon("CheckBox.icon");
-	    BufferedImage checkedBoxImage = new BufferedImage(
-	        checkedBoxIcon.getIconWidth(),  checkedBoxIcon.getIconHeight(), BufferedImage.TYPE_INT_ARGB
-	    );
-	    Graphics checkedGraphics = checkedBoxImage.createGraphics();
-	    try{
-	        checkedBoxIcon.paintIcon(checkbox, checkedGraphics, 0, 0);
-	    }finally{
-	        checkedGraphics.dispose();
+
+	    private static Icon[] get(int size) {
+	        String key = UIManager.getLookAndFeel().getClass().getName() + "@" + size;
+	        return cache.computeIfAbsent(key, k -> render(size));
+	    }
+
+	    /**
+	     * Renders the icons from a new checkbox, in the default (enabled, not pressed) state,
+	     * so the shared icons don't depend on the state of the checkbox being scaled.
+	     * Disabled icons are still derived from them by the look and feel.
+	     */
+	    private static Icon[] render(int size) {
+	        JCheckBox checkbox = new JCheckBox();
+	        Icon boxIcon = scale(checkbox, size);
+	        checkbox.setSelected(true);
+	        Icon checkedBoxIcon = scale(checkbox, size);
+	        return new Icon[] { boxIcon, checkedBoxIcon };
+	    }
+
+	    /** Paints the look and feel icon for the checkbox's current state, and scales it to the given size. */
+	    private static Icon scale(JCheckBox checkbox, int size) {
+	        Icon boxIcon = UIManager.getIcon("CheckBox.icon");
+	        BufferedImage boxImage = new BufferedImage(
+	            boxIcon.getIconWidth(), boxIcon.getIconHeight(), BufferedImage.TYPE_INT_ARGB
+	        );
+	        Graphics graphics = boxImage.createGraphics();
+	        try{
+	            boxIcon.paintIcon(checkbox, graphics, 0, 0);
+	        }finally{
+	            graphics.dispose();
+	        }
+	        return new ImageIcon(Images.toCompatibleImage(boxImage.getScaledInstance(size, size, Image.SCALE_SMOOTH)));
 	    }
-	    ImageIcon newCheckedBoxImage = new ImageIcon(checkedBoxImage);
-	    Image finalCheckedBoxImage = newCheckedBoxImage.getImage().getScaledInstance(
-	        boxFontMetrics.getHeight(), boxFontMetrics.getHeight(), Image.SCALE_SMOOTH
-	    );
-	    checkbox.setSelectedIcon(new ImageIcon(finalCheckedBoxImage));
-	    checkbox.setSelected(false);
-	    checkbox.setSelected(previousState);
 	}
 	
     /**
@@ -135,37 +221,56 @@ public class SwingComponents {
      * @param component - Component to be updated. 
 	 */
 	public static void refresh(Component component) {
+		installDefaults();
+		refreshTree(component);
+	}
+
+	private static void refreshTree(Component component) {
     	if (component instanceof Container) {
 	    	for (Component c : ((Container)component).getComponents()) {
-	    		refresh(c);
+	    		refreshTree(c);
 	    	}
     	}
     	component.revalidate();
     	component.repaint();
     }
 
+    /**
+	 * Updates the rendering of a component, optionally coalescing it with other refreshes (see {@link CoalescedRefresh}).
+	 * When coalesced, only the component itself is marked as changed, and it's refreshed later with a single revalidation
+	 * of its validate root and a single repaint of its window, instead of requests for each one of its inner components.
+	 * Notice that, unlike {@link #refresh(Component)}, a coalesced refresh doesn't invalidate the inner components,
+	 * so it's meant for changes of the component itself (inner components changed through their own setters,
+	 * such as setFont, are already invalidated by them).
+     * @param component - Component to be updated.
+     * @param coalesced - Wether to coalesce the refresh, or update all inner components right away as in {@link #refresh(Component)}.
+	 */
+	public static void refresh(Component component, boolean coalesced) {
+		installDefaults();
+		if (coalesced)
+			CoalescedRefresh.markDirty(component);
+		else
+			refresh(component);
+	}
+
     /**
      * Attaches a key listener to the given input text field that triggers the given
      * action when the specified key code is pressed.
+     * The action is bound through the shared {@link KeyDispatcher}, instead of a listener for each field and key.
+     * Bindings are changed on the Event Dispatch Thread: if called from another thread, the action is bound later on it.
      *
      * @param inputText the text field to attach the key listener to
      * @param keyCode   the key code that triggers the action
      * @param action    the action to execute when the key is pressed
      */
     public static void addKeyPressedListener(JTextField inputText, int keyCode, Runnable action) {
-		inputText.addKeyListener(new KeyListener() {
-			public void keyTyped(KeyEvent e) {}
-			public void keyReleased(KeyEvent e) {}
-			public void keyPressed(KeyEvent e) {
-				if(e.getKeyCode() == keyCode)
-					action.run();
-			}
-		});
+        installDefaults();
+        bindOnEdt(() -> KeyDispatcher.getDefault().bind(inputText, keyCode, action));
     }
 
     /**
      * Adds a listener to the specified JTextField that will run the given action 
-     * when the enter key is pressed.
+     * when the enter key is pressed (see {@link #addKeyPressedListener(JTextField, int, Runnable)}).
      * 
      * @param inputText The JTextField to add the listener to.
      * @param action The action to run when the enter key is pressed.
@@ -174,21 +279,39 @@ public class SwingComponents {
         addKeyPressedListener(inputText, KeyEvent.VK_ENTER, action);
     }
 
+    /**
+     * Adds a listener to the specified JTextField that will run the given action 
+     * when the enter key is pressed, optionally outside the Event Dispatch Thread
+     * (see {@link #addKeyPressedListener(JTextField, int, Runnable)}).
+     * 
+     * @param inputText The JTextField to add the listener to.
+     * @param action The action to run when the enter key is pressed.
+     * @param offEdt Wether to run the action on the background executor of {@link SwingExecutor}, so slow actions don't freeze the interface.
+     */
+    public static void addEnterPressedListener(JTextField inputText, Runnable action, boolean offEdt) {
+        installDefaults();
+        bindOnEdt(() -> KeyDispatcher.getDefault().bind(inputText, KeyEvent.VK_ENTER, action)
+                .executeOn(offEdt ? SwingExecutor.background() : null));
+    }
+
+    /** Runs a change of key bindings on the Event Dispatch Thread, as required by {@link KeyDispatcher}. */
+    private static void bindOnEdt(Runnable binding) {
+        if (SwingUtilities.isEventDispatchThread())
+            binding.run();
+        else
+            SwingUtilities.invokeLater(binding);
+    }
+
     /**
      * Restricts the input of a given JTextField to only allow characters that match the given regex pattern. 
+     * The pattern is compiled only once, and applies both to typed and inserted texts (see {@link InputRestriction}).
      *
      * @param input The JTextField to restrict input on.
      * @param regex The regex pattern to match against the input.
      */
     public static void restrictInput(JTextField input, String regex) {
-        ((AbstractDocument) input.getDocument()).setDocumentFilter(new DocumentFilter() {
-            @Override
-            public void replace(FilterBypass fb, int offset, int length, String text, AttributeSet attrs) throws BadLocationException {
-                if (text.matches(regex)) {
-                    super.replace(fb, offset, length, text, attrs);
-                }
-            }
-        });
+        installDefaults();
+        InputRestriction.matching(regex).install(input);
     }
 
     /**
@@ -200,7 +323,19 @@ public class SwingComponents {
      * @return a set of all children components that pass the filter
      */
     public static Set<Component> filterChildren(Container parent, Predicate<Component> filter) {
-        return getAllChildren(parent).stream().filter(filter).collect(Collectors.toSet());
+        return streamChildren(parent).filter(filter).collect(Collectors.toSet());
+    }
+
+    /**
+     * Finds the first child reachable from the given parent container that passes the given filter.
+     * The search stops as soon as a child is found, without visiting the rest of the components.
+     *
+     * @param parent the container whose children are to be searched
+     * @param filter the predicate to apply to each child component
+     * @return the first child found (parents are visited before their children), or an empty Optional if there is none
+     */
+    public static Optional<Component> findChild(Container parent, Predicate<Component> filter) {
+        return streamChildren(parent).filter(filter).findFirst();
     }
 
     /**
@@ -211,14 +346,58 @@ public class SwingComponents {
      * @return a set of all children reachable from the given parent
      */
     public static Set<Component> getAllChildren(Container parent) {
-        Set<Component> children = new HashSet<>();
-        for (Component child : parent.getComponents()) {
-            children.add(child);
-            if (child instanceof Container)
-                children.addAll(getAllChildren((Container) child));
+        return streamChildren(parent).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    /**
+     * Lazily traverses all the children reachable from the given parent container (not including the parent itself).
+     * It considers menu items as children from their menus, just like {@link #getAllChildren(Container)},
+     * but components are only visited as the stream is consumed, so operations such as findFirst or anyMatch
+     * stop the traversal early, and no collection of components is created.
+     * Parents are always visited before their children.
+     *
+     * @param parent the container whose children are to be traversed
+     * @return a sequential stream of all children reachable from the given parent
+     */
+    public static Stream<Component> streamChildren(Container parent) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new ChildrenIterator(parent),
+                Spliterator.NONNULL | Spliterator.DISTINCT), false);
+    }
+
+    /**
+     * Iterative depth-first traversal of a component tree, keeping only the components still to be visited.
+     */
+    private static class ChildrenIterator implements Iterator<Component> {
+        private final Deque<Component> pending = new ArrayDeque<>();
+
+        private ChildrenIterator(Container parent) {
+            pushChildren(parent);
+        }
+
+        private void pushChildren(Component component) {
+            if (component instanceof JMenu)
+                pushAll(((JMenu) component).getPopupMenu().getComponents());
+            if (component instanceof Container)
+                pushAll(((Container) component).getComponents());
+        }
+
+        private void pushAll(Component[] children) {
+            for (int i = children.length - 1; i >= 0; i--)
+                pending.push(children[i]);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public Component next() {
+            if (pending.isEmpty())
+                throw new NoSuchElementException();
+            Component next = pending.pop();
+            pushChildren(next);
+            return next;
         }
-        if (parent instanceof JMenu)
-            children.addAll(getAllChildren(((JMenu) parent).getPopupMenu()));
-        return children;
     }
 }
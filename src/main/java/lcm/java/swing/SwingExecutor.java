@@ -0,0 +1,170 @@
+package lcm.java.swing;
+
+import java.awt.event.ActionListener;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * Helper class for running slow actions (such as database or file lookups) outside the Event Dispatch Thread,
+ * so they don't freeze the interface, and for bringing their results back to it.
+ * <P>
+ * Actions run on a shared background executor: virtual threads when running on Java 21 or newer,
+ * or a bounded pool of daemon threads otherwise. Results and errors are delivered on the Event Dispatch Thread.
+ * <P>
+ * Listeners can be moved off the Event Dispatch Thread by wrapping them, for example:
+ * {@code frame.addMessageListener(SwingExecutor.offEdt(e -> loadDetails()));}
+ */
+public class SwingExecutor {
+
+    private static final Map<Object, Future<?>> latestByKey = new ConcurrentHashMap<>();
+
+    private SwingExecutor() {}
+
+    /**
+     * Gets the shared background executor, created on the first call.
+     * As it's shared by the whole application, it's only exposed as an {@link Executor}, so it can't be shut down
+     * (its threads are daemons, so they don't keep the JVM running).
+     * @return the executor running tasks on virtual threads on Java 21 or newer, or on a bounded thread pool otherwise.
+     */
+    public static Executor background() {
+        return BackgroundHolder.SHARED;
+    }
+
+    /**
+     * Runs the given action on the background executor.
+     * @param action - The action to be run outside the Event Dispatch Thread.
+     * @return a Future that may be used to cancel the action.
+     */
+    public static Future<?> run(Runnable action) {
+        FutureTask<?> future = new FutureTask<>(action, null);
+        background().execute(future);
+        return future;
+    }
+
+    /**
+     * Runs the given task on the background executor, and delivers its result on the Event Dispatch Thread.
+     *
+     * @param <T> - The task's result type.
+     * @param task - The task to be run outside the Event Dispatch Thread.
+     * @param onSuccess - Receives the task's result, on the Event Dispatch Thread.
+     * @param onError - Receives the task's error, if any, on the Event Dispatch Thread (may be null to have it thrown there, reaching the uncaught exception handler).
+     * @return a Future that may be used to cancel the task (a cancelled task delivers nothing).
+     */
+    public static <T> Future<T> submit(Callable<T> task, Consumer<? super T> onSuccess, Consumer<Throwable> onError) {
+        return submit(null, task, onSuccess, onError);
+    }
+
+    /**
+     * Runs the given task like {@link #submit(Callable, Consumer, Consumer)}, but superseding any previous task
+     * submitted with the same key: the previous task is cancelled (interrupted if already running),
+     * and only the result of the latest one is delivered. Useful for lookups triggered by successive events,
+     * such as each key typed in a search field.
+     *
+     * @param <T> - The task's result type.
+     * @param key - Identifies the tasks that supersede each other.
+     * @param task - The task to be run outside the Event Dispatch Thread.
+     * @param onSuccess - Receives the task's result, on the Event Dispatch Thread.
+     * @param onError - Receives the task's error, if any, on the Event Dispatch Thread (may be null to have it thrown there, reaching the uncaught exception handler).
+     * @return a Future that may be used to cancel the task.
+     */
+    public static <T> Future<T> submitLatest(Object key, Callable<T> task, Consumer<? super T> onSuccess, Consumer<Throwable> onError) {
+        if (key == null)
+            throw new IllegalArgumentException("A key is required for superseding tasks.");
+        return submit(key, task, onSuccess, onError);
+    }
+
+    /**
+     * Wraps the given action so it runs on the background executor whenever the wrapper is run.
+     * @param action - The action to be run outside the Event Dispatch Thread.
+     * @return the wrapping action.
+     */
+    public static Runnable offEdt(Runnable action) {
+        return () -> run(action);
+    }
+
+    /**
+     * Wraps the given listener so it's called on the background executor.
+     * @param listener - The listener to be called outside the Event Dispatch Thread.
+     * @return the wrapping listener.
+     */
+    public static ActionListener offEdt(ActionListener listener) {
+        return e -> run(() -> listener.actionPerformed(e));
+    }
+
+    private static <T> Future<T> submit(Object key, Callable<T> task, Consumer<? super T> onSuccess, Consumer<Throwable> onError) {
+        FutureTask<T> future = new FutureTask<T>(task) {
+            @Override
+            protected void done() {
+                if (isCancelled())
+                    return;
+                SwingUtilities.invokeLater(() -> deliver(key, this, onSuccess, onError));
+            }
+        };
+        if (key != null) {
+            Future<?> previous = latestByKey.put(key, future);
+            if (previous != null)
+                previous.cancel(true);
+        }
+        background().execute(future);
+        return future;
+    }
+
+    private static <T> void deliver(Object key, FutureTask<T> future, Consumer<? super T> onSuccess, Consumer<Throwable> onError) {
+        if (key != null && !latestByKey.remove(key, future))
+            return; // Superseded by a newer task.
+        try {
+            onSuccess.accept(future.get());
+        } catch (ExecutionException e) {
+            if (onError != null)
+                onError.accept(e.getCause());
+            else if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            else if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            else
+                throw new IllegalStateException("Error while running background task.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Holds the background executor, created only when first needed.
+     */
+    private static class BackgroundHolder {
+        private static final ExecutorService EXECUTOR = create();
+
+        /** Only runs tasks on the executor, so callers can't shut it down. */
+        private static final Executor SHARED = command -> EXECUTOR.execute(command);
+
+        private static ExecutorService create() {
+            try {
+                // Available from Java 21 on. Looked up by reflection, as this library is still built for Java 8.
+                return (ExecutorService) java.util.concurrent.Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+                ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(), runnable -> {
+                            Thread thread = new Thread(runnable, "SwingExecutor");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+                pool.allowCoreThreadTimeOut(true);
+                return pool;
+            }
+        }
+    }
+}
@@ -55,6 +55,7 @@ public class SystemTrayFrame extends JFrame {
     public SystemTrayFrame(String name, Image image, boolean restoreOption) {
         super(name);
         this.restoreOption = restoreOption;
+        SwingComponents.installDefaults();
         
         if (SystemTray.isSupported()) {
             this.tray = SystemTray.getSystemTray();
@@ -102,7 +103,7 @@ public class SystemTrayFrame extends JFrame {
         };
         PopupMenu popup = new PopupMenu();
         MenuItem defaultItem = new MenuItem("Exit");
-        defaultItem.setFont(SwingComponents.DEFAULT_FONT);
+        defaultItem.setFont(SwingComponents.getDefaultFont());
         defaultItem.addActionListener(exitListener);
         popup.add(defaultItem);
         
@@ -113,7 +114,7 @@ public class SystemTrayFrame extends JFrame {
                 }
             };
             MenuItem retoreOption = new MenuItem("Restore");
-            retoreOption.setFont(SwingComponents.DEFAULT_FONT);
+            retoreOption.setFont(SwingComponents.getDefaultFont());
             retoreOption.addActionListener(restoreListener);
             popup.add(retoreOption);
         }
@@ -162,7 +163,7 @@ public class SystemTrayFrame extends JFrame {
     	setState(NORMAL);
     	setVisible(true);
     	toFront();
-    	SwingComponents.refresh(this);
+    	SwingComponents.refresh(this, true);
     }
     
     /**
@@ -0,0 +1,149 @@
+package lcm.java.swing;
+
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
+import java.awt.font.TextLayout;
+import java.awt.geom.Rectangle2D;
+import java.text.Bidi;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Helper class for measuring the size of texts, keeping the most recently measured ones in a cache.
+ * <P>
+ * Simple texts are measured by the font's own glyphs. Texts the font can't display entirely (such as
+ * non-Latin texts with fallback fonts) or with right-to-left runs are measured with a {@link TextLayout},
+ * as they would be drawn.
+ * Measuring the same text with the same font again (as layouts do on every validation) only costs a cache lookup.
+ */
+public class TextMeasurer {
+
+    /** Maximum number of measured texts kept in the cache. */
+    private static final int CACHE_CAPACITY = 4096;
+
+    /**
+     * Rendering context used when none is given, the same as antialiased Swing components with the default hints
+     * (antialiasing on, fractional metrics off, so widths match {@link java.awt.FontMetrics#stringWidth(String)}).
+     */
+    private static final FontRenderContext DEFAULT_CONTEXT = new FontRenderContext(null, true, false);
+
+    private static final LruCache<Key, Dimension> cache = new LruCache<>(CACHE_CAPACITY);
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private TextMeasurer() {}
+
+    /**
+     * Overload for {@link #measure(Font, FontRenderContext, String)}, using the context of antialiased Swing components
+     * (without fractional metrics). Components with other rendering hints should give their own context.
+     *
+     * @param font - The font the text is drawn with.
+     * @param text - The text to be measured (null is treated as empty).
+     * @return the text width and height, rounded up, as a new instance.
+     * @see #measure(Font, FontRenderContext, String)
+     */
+    public static Dimension measure(Font font, String text) {
+        return measure(font, DEFAULT_CONTEXT, text);
+    }
+
+    /**
+     * Measures the size a text takes when drawn in a single line.
+     *
+     * @param font - The font the text is drawn with.
+     * @param context - The rendering context the text is drawn with (as in {@link java.awt.FontMetrics#getFontRenderContext()}).
+     * @param text - The text to be measured (null is treated as empty).
+     * @return the text width (its advance) and height (ascent, descent and leading), rounded up. It's a new instance, free to be changed.
+     */
+    public static Dimension measure(Font font, FontRenderContext context, String text) {
+        Objects.requireNonNull(font, "Font must not be null.");
+        Key key = new Key(font, context, text == null ? "" : text);
+        Dimension size = cache.get(key);
+        if (size != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            size = compute(key.font, key.context, key.text);
+            cache.put(key, size);
+        }
+        return new Dimension(size);
+    }
+
+    /**
+     * Overload for {@link #measure(Font, String)}, returning only the width.
+     * @param font - The font the text is drawn with.
+     * @param text - The text to be measured.
+     * @return the text width, rounded up.
+     */
+    public static int stringWidth(Font font, String text) {
+        return measure(font, text).width;
+    }
+
+    private static Dimension compute(Font font, FontRenderContext context, String text) {
+        if (text.isEmpty()) {
+            LineMetrics line = font.getLineMetrics(text, context);
+            return new Dimension(0, ceil(line.getAscent() + line.getDescent() + line.getLeading()));
+        }
+        if (font.canDisplayUpTo(text) == -1 && !Bidi.requiresBidi(text.toCharArray(), 0, text.length())) {
+            Rectangle2D bounds = font.getStringBounds(text, context);
+            return new Dimension(ceil(bounds.getWidth()), ceil(bounds.getHeight()));
+        }
+        TextLayout layout = new TextLayout(text, font, context);
+        return new Dimension(ceil(layout.getAdvance()), ceil(layout.getAscent() + layout.getDescent() + layout.getLeading()));
+    }
+
+    private static int ceil(double value) {
+        return (int) Math.ceil(value);
+    }
+
+    /**
+     * Gets how many measurements were answered from the cache.
+     * @return the number of cache hits.
+     */
+    public static long getCacheHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets how many measurements had to be computed.
+     * @return the number of cache misses.
+     */
+    public static long getCacheMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Discards all the cached measurements (the hit and miss counts are kept).
+     */
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    private static final class Key {
+        private final Font font;
+        private final FontRenderContext context;
+        private final String text;
+        private final int hash;
+
+        private Key(Font font, FontRenderContext context, String text) {
+            this.font = font;
+            this.context = context;
+            this.text = text;
+            this.hash = (font.hashCode() * 31 + context.hashCode()) * 31 + text.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key))
+                return false;
+            Key other = (Key) obj;
+            return hash == other.hash && text.equals(other.text) && font.equals(other.font) && context.equals(other.context);
+        }
+    }
+}
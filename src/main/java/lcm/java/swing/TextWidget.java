@@ -14,7 +14,7 @@ public class TextWidget {
 	
 	private SystemTrayFrame frame;
 	private Color textColor = Color.WHITE;
-	private CustomFont font = new CustomFont("Arial", Style.BOLD, 15);
+	private CustomFont font = CustomFont.of("Arial", Style.BOLD, 15);
 	private CharSequence text;
 	private CharSequence title;
 	
@@ -0,0 +1,455 @@
+package lcm.java.swing;
+
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+/**
+ * Component for displaying huge images (such as scans or maps) without holding them entirely in memory.
+ * <P>
+ * The image is split in square tiles over a multi-resolution pyramid, where each level has half the
+ * resolution of the previous one. Only the tiles intersecting the painted area are drawn, from the
+ * level closest to the current zoom. Tiles are decoded on background threads and kept in a bounded
+ * cache (least recently used tiles are discarded). While a tile is not ready, a coarser cached tile
+ * is stretched in its place, if available.
+ * <P>
+ * Images from files are decoded lazily, reading only the needed regions (see {@link ImageReadParam#setSourceRegion(Rectangle)}).
+ * Images already in memory have their pyramid built on construction.
+ * <P>
+ * The component should be disposed with {@link #dispose()} when no longer used, to release its threads and files.
+ */
+public class TiledImageView extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Width and height of each tile, in pixels of its level. */
+    private static final int TILE_SIZE = 256;
+
+    /** Default maximum number of tiles kept in memory. */
+    private static final int DEFAULT_CACHED_TILES = 256;
+
+    /** Default number of background threads decoding tiles. */
+    private static final int DEFAULT_DECODER_THREADS = 2;
+
+    private final transient TileSource source;
+    private final transient LruCache<TileKey, BufferedImage> cache;
+    private final transient Set<TileKey> pending = ConcurrentHashMap.newKeySet();
+    private final transient ExecutorService decoder;
+    private final int maxLevel;
+
+    private volatile int currentLevel;
+    private double zoom = 1;
+    private transient Consumer<RuntimeException> errorHandler = error -> { throw error; };
+
+    /**
+     * Overload for the complete file constructor {@link #TiledImageView(File, int, int)}, with default cache size and threads.
+     * @param file - The image file to be displayed.
+     * @see #TiledImageView(File, int, int)
+     */
+    public TiledImageView(File file) {
+        this(file, DEFAULT_CACHED_TILES, DEFAULT_DECODER_THREADS);
+    }
+
+    /**
+     * Constructor for displaying an image file, decoding its tiles only when needed.
+     *
+     * @param file - The image file to be displayed.
+     * @param cachedTiles - Maximum number of decoded tiles kept in memory.
+     * @param decoderThreads - Number of background threads decoding tiles (each one keeps its own open reader).
+     * @throws IllegalArgumentException if the file can't be read or its format is not supported.
+     */
+    public TiledImageView(File file, int cachedTiles, int decoderThreads) {
+        this(new FileTileSource(file, decoderThreads), cachedTiles, decoderThreads);
+    }
+
+    /**
+     * Constructor for displaying an image already in memory, with default cache size and threads.
+     * The pyramid levels are built right away.
+     *
+     * @param image - The image to be displayed.
+     */
+    public TiledImageView(BufferedImage image) {
+        this(new MemoryTileSource(image), DEFAULT_CACHED_TILES, DEFAULT_DECODER_THREADS);
+    }
+
+    private TiledImageView(TileSource source, int cachedTiles, int decoderThreads) {
+        this.source = source;
+        this.cache = new LruCache<>(cachedTiles);
+        this.decoder = Executors.newFixedThreadPool(decoderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "TiledImageView-decoder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int levels = 0;
+        while ((Math.max(source.getWidth(), source.getHeight()) >> levels) > TILE_SIZE)
+            levels++;
+        this.maxLevel = levels;
+    }
+
+    /**
+     * Sets the zoom to display the image with (1 means the image's original size).
+     * @param zoom - The new zoom, greater than 0.
+     */
+    public void setZoom(double zoom) {
+        if (zoom <= 0)
+            throw new IllegalArgumentException("Zoom must be positive: " + zoom);
+        this.zoom = zoom;
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Sets what to do when a tile can't be decoded. The tile is requested again on the next paint of its area.
+     * By default, the error is thrown on the Event Dispatch Thread (reaching its uncaught exception handler).
+     * @param errorHandler - Receives the errors (IllegalArgumentException wrapping read errors, or the RuntimeException thrown by the tile source), on the Event Dispatch Thread.
+     */
+    public void setErrorHandler(Consumer<RuntimeException> errorHandler) {
+        this.errorHandler = Objects.requireNonNull(errorHandler, "Error handler must not be null.");
+    }
+
+    /**
+     * Gets the current zoom.
+     * @return the zoom (1 means the image's original size).
+     */
+    public double getZoom() {
+        return zoom;
+    }
+
+    /**
+     * Gets the width of the full resolution image.
+     * @return the image width in pixels.
+     */
+    public int getImageWidth() {
+        return source.getWidth();
+    }
+
+    /**
+     * Gets the height of the full resolution image.
+     * @return the image height in pixels.
+     */
+    public int getImageHeight() {
+        return source.getHeight();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet())
+            return super.getPreferredSize();
+        return new Dimension((int) Math.ceil(source.getWidth() * zoom), (int) Math.ceil(source.getHeight() * zoom));
+    }
+
+    /**
+     * Stops the background decoding and releases the cached tiles and any open files.
+     * The component should not be displayed after this.
+     */
+    public void dispose() {
+        decoder.shutdownNow();
+        cache.clear();
+        source.close();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+
+        Rectangle clip = g.getClipBounds();
+        if (clip == null)
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+        int level = levelFor(zoom);
+        currentLevel = level;
+        int span = TILE_SIZE << level; // Full resolution pixels covered by a tile at this level.
+        int firstCol = Math.max(0, (int) (clip.x / zoom) / span);
+        int firstRow = Math.max(0, (int) (clip.y / zoom) / span);
+        int lastCol = Math.min((source.getWidth() - 1) / span, (int) ((clip.x + clip.width) / zoom) / span);
+        int lastRow = Math.min((source.getHeight() - 1) / span, (int) ((clip.y + clip.height) / zoom) / span);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                TileKey key = new TileKey(level, col, row);
+                Rectangle bounds = screenBounds(key);
+                BufferedImage tile = cache.get(key);
+                if (tile != null) {
+                    g.drawImage(tile, bounds.x, bounds.y, bounds.width, bounds.height, null);
+                } else {
+                    request(key, bounds);
+                    paintFromCoarserLevel(g, key, bounds);
+                }
+            }
+        }
+    }
+
+    private int levelFor(double zoom) {
+        int level = 0;
+        while (level < maxLevel && zoom * (1 << (level + 1)) <= 1)
+            level++;
+        return level;
+    }
+
+    private Rectangle sourceBounds(TileKey key) {
+        int span = TILE_SIZE << key.level;
+        int x = key.col * span;
+        int y = key.row * span;
+        return new Rectangle(x, y, Math.min(span, source.getWidth() - x), Math.min(span, source.getHeight() - y));
+    }
+
+    private Rectangle screenBounds(TileKey key) {
+        Rectangle region = sourceBounds(key);
+        int x = (int) Math.floor(region.x * zoom);
+        int y = (int) Math.floor(region.y * zoom);
+        return new Rectangle(x, y,
+                (int) Math.ceil((region.x + region.width) * zoom) - x,
+                (int) Math.ceil((region.y + region.height) * zoom) - y);
+    }
+
+    private void paintFromCoarserLevel(Graphics g, TileKey key, Rectangle bounds) {
+        Rectangle region = sourceBounds(key);
+        for (int level = key.level + 1; level <= maxLevel; level++) {
+            int shift = level - key.level;
+            TileKey coarser = new TileKey(level, key.col >> shift, key.row >> shift);
+            BufferedImage tile = cache.get(coarser);
+            if (tile != null) {
+                Rectangle coarserRegion = sourceBounds(coarser);
+                int sx = (region.x - coarserRegion.x) >> level;
+                int sy = (region.y - coarserRegion.y) >> level;
+                int sw = Math.max(1, region.width >> level);
+                int sh = Math.max(1, region.height >> level);
+                g.drawImage(tile, bounds.x, bounds.y, bounds.x + bounds.width, bounds.y + bounds.height,
+                        sx, sy, Math.min(sx + sw, tile.getWidth()), Math.min(sy + sh, tile.getHeight()), null);
+                return;
+            }
+        }
+    }
+
+    private void request(TileKey key, Rectangle bounds) {
+        if (decoder.isShutdown() || !pending.add(key))
+            return;
+        try {
+            decoder.execute(() -> decode(key, bounds));
+        } catch (RejectedExecutionException e) {
+            pending.remove(key); // Disposed meanwhile.
+        }
+    }
+
+    private void decode(TileKey key, Rectangle bounds) {
+        if (key.level != currentLevel) {
+            pending.remove(key); // No longer needed, as the zoom changed meanwhile.
+            return;
+        }
+        Rectangle region = sourceBounds(key);
+        try {
+            cache.put(key, source.readTile(region, 1 << key.level));
+            SwingUtilities.invokeLater(() -> repaint(bounds));
+        } catch (IOException e) {
+            report(new IllegalArgumentException("Error while trying to read image tile " + region, e));
+        } catch (RuntimeException e) {
+            report(e); // Such as corrupt data rejected by the decoder, which the executor would swallow.
+        } finally {
+            pending.remove(key); // Allows the tile to be requested again, after a failure too.
+        }
+    }
+
+    private void report(RuntimeException error) {
+        SwingUtilities.invokeLater(() -> errorHandler.accept(error));
+    }
+
+    private static final class TileKey {
+        private final int level;
+        private final int col;
+        private final int row;
+
+        private TileKey(int level, int col, int row) {
+            this.level = level;
+            this.col = col;
+            this.row = row;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof TileKey))
+                return false;
+            TileKey other = (TileKey) obj;
+            return level == other.level && col == other.col && row == other.row;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(level, col, row);
+        }
+    }
+
+    /**
+     * Source of the image pixels, from which tiles are produced.
+     */
+    private interface TileSource {
+        int getWidth();
+        int getHeight();
+
+        /**
+         * Reads a region of the full resolution image, reduced by the given subsampling factor.
+         */
+        BufferedImage readTile(Rectangle region, int subsampling) throws IOException;
+
+        void close();
+    }
+
+    /**
+     * Decodes only the requested regions of an image file, using one reader per decoding thread.
+     */
+    private static class FileTileSource implements TileSource {
+        private final BlockingQueue<ImageReader> readers;
+        private final int width;
+        private final int height;
+
+        private FileTileSource(File file, int readerCount) {
+            this.readers = new ArrayBlockingQueue<>(readerCount);
+            try {
+                for (int i = 0; i < readerCount; i++)
+                    readers.add(openReader(file));
+                ImageReader reader = readers.peek();
+                this.width = reader.getWidth(0);
+                this.height = reader.getHeight(0);
+            } catch (IOException e) {
+                close();
+                throw new IllegalArgumentException("Error while trying to read image from file " + file, e);
+            }
+        }
+
+        private static ImageReader openReader(File file) throws IOException {
+            ImageInputStream stream = ImageIO.createImageInputStream(file);
+            if (stream == null)
+                throw new IOException("File can't be opened: " + file);
+            Iterator<ImageReader> available = ImageIO.getImageReaders(stream);
+            if (!available.hasNext()) {
+                stream.close();
+                throw new IOException("Unsupported image format: " + file);
+            }
+            ImageReader reader = available.next();
+            reader.setInput(stream, true, true);
+            return reader;
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public BufferedImage readTile(Rectangle region, int subsampling) throws IOException {
+            ImageReader reader;
+            try {
+                reader = readers.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for an image reader.", e);
+            }
+            try {
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(region);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                readers.add(reader);
+            }
+        }
+
+        @Override
+        public void close() {
+            ImageReader reader;
+            while ((reader = readers.poll()) != null) {
+                try {
+                    Object input = reader.getInput();
+                    if (input instanceof ImageInputStream)
+                        ((ImageInputStream) input).close();
+                } catch (IOException e) {
+                    // Nothing else to be done when closing.
+                }
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Keeps the whole pyramid in memory, with each level having half the resolution of the previous one.
+     */
+    private static class MemoryTileSource implements TileSource {
+        private final BufferedImage[] levels;
+
+        private MemoryTileSource(BufferedImage image) {
+            int count = 1;
+            while ((Math.max(image.getWidth(), image.getHeight()) >> (count - 1)) > TILE_SIZE)
+                count++;
+            levels = new BufferedImage[count];
+            levels[0] = image;
+            for (int i = 1; i < count; i++) {
+                BufferedImage previous = levels[i - 1];
+                int w = Math.max(1, previous.getWidth() / 2);
+                int h = Math.max(1, previous.getHeight() / 2);
+                BufferedImage level = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g = level.createGraphics();
+                try {
+                    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    g.drawImage(previous, 0, 0, w, h, null);
+                } finally {
+                    g.dispose();
+                }
+                levels[i] = level;
+            }
+        }
+
+        @Override
+        public int getWidth() {
+            return levels[0].getWidth();
+        }
+
+        @Override
+        public int getHeight() {
+            return levels[0].getHeight();
+        }
+
+        @Override
+        public BufferedImage readTile(Rectangle region, int subsampling) {
+            int level = Integer.numberOfTrailingZeros(subsampling);
+            BufferedImage image = levels[level];
+            int x = Math.min(region.x >> level, image.getWidth() - 1);
+            int y = Math.min(region.y >> level, image.getHeight() - 1);
+            int w = Math.max(1, Math.min((region.width + subsampling - 1) >> level, image.getWidth() - x));
+            int h = Math.max(1, Math.min((region.height + subsampling - 1) >> level, image.getHeight() - y));
+            return image.getSubimage(x, y, w, h);
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release: the levels are garbage collected with the component.
+        }
+    }
+}
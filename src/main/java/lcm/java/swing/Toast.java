@@ -5,6 +5,7 @@ import java.awt.GridBagLayout;
 import java.awt.Point;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.font.FontRenderContext;
 import java.awt.geom.RoundRectangle2D;
 
 import javax.swing.JFrame;
@@ -32,13 +33,19 @@ public class Toast extends JFrame {
     /** Refresh rate for the fading effect. */
     private final int WINDOW_RADIUS = 15;
 
-    /** Multiplier to affect the frame total size. */
-    private final int CHARACTER_LENGTH_MULTIPLIER = 9;
+    /** Space between the text and the left and right borders. */
+    private final int HORIZONTAL_PADDING = 20;
 
     /** Defines the height for the Toast to be displayed. */
     private final int DISTANCE_FROM_PARENT_BOTTOM = 100;
 
 
+    /** Label with the displayed text. */
+    private final JLabel label = new JLabel();
+
+    /** Timer of the fading effect currently running, if any. */
+    private Timer fading;
+
     /**
      * Constructor for Toast.
      * 
@@ -46,6 +53,14 @@ public class Toast extends JFrame {
      * @param toastText - Text to be displayed.
      */
     public Toast(JFrame owner, String toastText) {
+        this();
+        reset(owner, toastText);
+    }
+
+    /**
+     * Constructor for a Toast without text, to be set with {@link #reset(JFrame, String)} (used by {@link ToastManager} to reuse windows).
+     */
+    Toast() {
         setTitle("Transparent JFrame Demo");
         setLayout(new GridBagLayout());
 
@@ -56,26 +71,40 @@ public class Toast extends JFrame {
         setOpacity(0.4f);
 
         // setup the toast lable
-        JLabel b1 = new JLabel(toastText);
-        b1.setForeground(Color.WHITE);
-        b1.setOpaque(false);
-        add(b1);
+        label.setForeground(Color.WHITE);
+        label.setOpaque(false);
+        add(label);
+
+        // configure frame
+        getContentPane().setBackground(new Color(0, 0, 0, 170));
+    }
+
+    /**
+     * Changes the text of this toast, resizing and positioning it again over the given owner.
+     * It must be called on the Event Dispatch Thread while the toast is hidden.
+     * 
+     * @param owner - Parent's JFrame.
+     * @param toastText - Text to be displayed.
+     */
+    void reset(JFrame owner, String toastText) {
+        stopFading();
+        label.setText(toastText);
 
-        setSize(toastText.length() * CHARACTER_LENGTH_MULTIPLIER, 50);
+        FontRenderContext context = label.getFontMetrics(label.getFont()).getFontRenderContext();
+        setSize(TextMeasurer.measure(label.getFont(), context, toastText).width + 2 * HORIZONTAL_PADDING, 50);
 
         int x = (int) (owner.getLocation().getX() + (owner.getWidth() / 2));
         int y = (int) (owner.getLocation().getY() + owner.getHeight() - DISTANCE_FROM_PARENT_BOTTOM);
         setLocation(new Point(x, y));
 
-        // configure frame
         setShape(new RoundRectangle2D.Double(0, 0, getWidth(), getHeight(), WINDOW_RADIUS, WINDOW_RADIUS));
-        getContentPane().setBackground(new Color(0, 0, 0, 170));
     }
 
     /**
      * Method for manually calling the Toast to be visible.
      */
     public void fadeIn() {
+        stopFading();
     	setOpacity(0);
         setVisible(true);
 
@@ -94,12 +123,22 @@ public class Toast extends JFrame {
             }
         });
 
+        fading = timer;
         timer.start();
     }
     /**
      * Method for manually calling the Toast to get invisible.
      */
     public void fadeOut() {
+        fadeOut(this::dispose);
+    }
+
+    /**
+     * Makes the Toast get invisible, calling the given action once it's hidden (instead of disposing it).
+     * @param onHidden - Action to be called on the Event Dispatch Thread after the toast is hidden.
+     */
+    void fadeOut(Runnable onHidden) {
+        stopFading();
         final Timer timer = new Timer(FADE_REFRESH_RATE, null);
         timer.setRepeats(true);
         timer.addActionListener(new ActionListener() {
@@ -112,35 +151,32 @@ public class Toast extends JFrame {
                 if (opacity <= 0) {
                     timer.stop();
                     setVisible(false);
-                    dispose();
+                    onHidden.run();
                 }
             }
         });
 
         setOpacity(MAX_OPACITY);
+        fading = timer;
         timer.start();
     }
 
+    private void stopFading() {
+        if (fading != null) {
+            fading.stop();
+            fading = null;
+        }
+    }
+
     /**
      * Makes a toast and automatically displays it.
+     * Toasts are displayed by the default {@link ToastManager}, which reuses their windows.
      * @param owner - Parent's JFrame.
      * @param toastText - Text to be displayed.
      * @param durationSec - Visibility duration.
      */
     public static void makeToast(final JFrame owner, final String toastText, final int durationSec) {
-        new Thread(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    Toast toastFrame = new Toast(owner, toastText);
-                    toastFrame.fadeIn();
-                    Thread.sleep(durationSec * 1000);
-                    toastFrame.fadeOut();
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                }
-            }
-        }).start();
+        ToastManager.getDefault().show(owner, toastText, durationSec * 1000L);
     }
     
     @Override
@@ -0,0 +1,436 @@
+package lcm.java.swing;
+
+import java.awt.Window;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+
+/**
+ * Displays toasts (see {@link Toast}), reusing their windows.
+ * <P>
+ * Hidden toast windows are kept in a small pool and reused for the next toasts, instead of creating and disposing
+ * a native window for each one. Pooled windows are disposed once they are not reused for a few seconds, or when no other
+ * window of the application is displayable anymore, so they don't keep the AWT (and the JVM) running. Toasts are always built and shown on the Event Dispatch Thread, and the time each one
+ * stays visible is scheduled on a single shared daemon thread (no thread is created or kept sleeping per toast).
+ * <P>
+ * Requested toasts wait in a bounded queue, and are shown by priority (and by request order, for equal priorities),
+ * limited to a number of toasts visible at once and to a maximum display rate. A toast requested with the same text
+ * (over the same owner) as one still waiting is coalesced into it, being shown once with a "&times;N" counter.
+ * When the queue is full, a toast is dropped according to the {@link DropPolicy}.
+ * <P>
+ * Counters of shown, dropped and coalesced toasts and created windows, and the latency from each request until its toast is shown, are available.
+ */
+public class ToastManager {
+
+    /** Default number of hidden windows kept for reuse. */
+    private static final int DEFAULT_POOL_SIZE = 4;
+
+    /** Time a hidden window is kept without being reused, before being disposed. */
+    private static final long IDLE_WINDOW_MILLIS = 5000;
+
+    /** Default maximum number of toasts waiting to be shown. */
+    private static final int DEFAULT_CAPACITY = 50;
+
+    /** Default maximum number of toasts displayed per second. */
+    private static final double DEFAULT_MAX_RATE = 4;
+
+    /**
+     * Priorities of the toasts. Toasts with higher priorities are shown first.
+     */
+    public static enum Priority {
+        /** For toasts that may wait for all the others, being the first dropped by {@link DropPolicy#DROP_LOWEST_PRIORITY}. */
+        LOW,
+        /** The priority of toasts requested without one. */
+        NORMAL,
+        /** For toasts shown before any other waiting toast, being the last dropped by {@link DropPolicy#DROP_LOWEST_PRIORITY}. */
+        HIGH
+    }
+
+    /**
+     * What to do when a toast is requested while the queue is full.
+     */
+    public static enum DropPolicy {
+        /** The requested toast is dropped. */
+        DROP_NEWEST,
+        /** The toast waiting for the longest time is dropped, regardless of its priority. */
+        DROP_OLDEST,
+        /** The waiting toast with the lowest priority (the oldest among them) is dropped, unless the requested toast has an even lower priority. */
+        DROP_LOWEST_PRIORITY
+    }
+
+    private final int poolSize;
+    private final Deque<Toast> idle = new ArrayDeque<>();
+    private long acquiredCount;
+    private final PriorityQueue<Request> queue = new PriorityQueue<>(
+            Comparator.comparing((Request r) -> r.priority).reversed().thenComparingLong(r -> r.sequence));
+    private final Map<Request, Request> waiting = new HashMap<>();
+
+    private int capacity = DEFAULT_CAPACITY;
+    private long minIntervalNanos = (long) (1e9 / DEFAULT_MAX_RATE);
+    private int maxVisible = 1;
+    private DropPolicy dropPolicy = DropPolicy.DROP_LOWEST_PRIORITY;
+
+    private long sequence;
+    private int visible;
+    private long lastShownAt;
+    private boolean drainPosted;
+    private boolean drainScheduled;
+
+    private long shownCount;
+    private long droppedCount;
+    private long coalescedCount;
+    private long windowsCreated;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+
+    /**
+     * Lazy holder of the default manager and of the scheduler shared by all managers.
+     */
+    private static class DefaultHolder {
+        private static final ToastManager MANAGER = new ToastManager(DEFAULT_POOL_SIZE);
+        private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ToastManager");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Constructor for the manager.
+     * @param poolSize - Maximum number of hidden windows kept for reuse (more toasts may be visible at once, but their extra windows are disposed).
+     * Pooled windows are still disposed when not reused for a few seconds.
+     */
+    public ToastManager(int poolSize) {
+        if (poolSize < 0)
+            throw new IllegalArgumentException("Pool size must not be negative: " + poolSize);
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Gets the default manager, used by {@link Toast#makeToast(JFrame, String, int)}.
+     * @return the default manager, created on the first call.
+     */
+    public static ToastManager getDefault() {
+        return DefaultHolder.MANAGER;
+    }
+
+    /**
+     * Sets the maximum number of toasts waiting to be shown. Toasts already waiting are kept, even if over the new capacity.
+     * @param capacity - The queue capacity (50 by default).
+     * @return this manager.
+     */
+    public synchronized ToastManager setCapacity(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of toasts displayed per second.
+     * @param toastsPerSecond - The maximum display rate (4 by default).
+     * @return this manager.
+     */
+    public synchronized ToastManager setMaxRate(double toastsPerSecond) {
+        if (!(toastsPerSecond > 0))
+            throw new IllegalArgumentException("Rate must be positive: " + toastsPerSecond);
+        this.minIntervalNanos = (long) (1e9 / toastsPerSecond);
+        return this;
+    }
+
+    /**
+     * Sets how many toasts may be visible at once. As toasts are displayed at the same position, more than one would overlap.
+     * @param maxVisible - The maximum number of visible toasts (1 by default).
+     * @return this manager.
+     */
+    public synchronized ToastManager setMaxVisible(int maxVisible) {
+        if (maxVisible < 1)
+            throw new IllegalArgumentException("Maximum visible toasts must be positive: " + maxVisible);
+        this.maxVisible = maxVisible;
+        return this;
+    }
+
+    /**
+     * Sets what to do when a toast is requested while the queue is full.
+     * @param dropPolicy - The drop policy ({@link DropPolicy#DROP_LOWEST_PRIORITY} by default).
+     * @return this manager.
+     */
+    public synchronized ToastManager setDropPolicy(DropPolicy dropPolicy) {
+        this.dropPolicy = Objects.requireNonNull(dropPolicy, "Drop policy must not be null.");
+        return this;
+    }
+
+    /**
+     * Overload for {@link #show(JFrame, String, long, Priority)} with normal priority.
+     *
+     * @param owner - Parent's JFrame.
+     * @param toastText - Text to be displayed.
+     * @param durationMillis - Visibility duration, in milliseconds.
+     * @return false if the toast was dropped because the queue is full, true otherwise.
+     * @see #show(JFrame, String, long, Priority)
+     */
+    public boolean show(JFrame owner, String toastText, long durationMillis) {
+        return show(owner, toastText, durationMillis, Priority.NORMAL);
+    }
+
+    /**
+     * Requests a toast with the given text over the owner frame, to be displayed for the given time (plus the fading effects)
+     * as soon as the queue, the visible toasts and the display rate allow it.
+     * If a toast with the same owner and text is still waiting, it's coalesced into that one (keeping the highest priority and duration).
+     * It can be called from any thread.
+     * 
+     * @param owner - Parent's JFrame.
+     * @param toastText - Text to be displayed.
+     * @param durationMillis - Visibility duration, in milliseconds.
+     * @param priority - Priority of the toast.
+     * @return false if the toast was dropped because the queue is full, true otherwise.
+     */
+    public boolean show(JFrame owner, String toastText, long durationMillis, Priority priority) {
+        Request request = new Request(owner, toastText, durationMillis, priority);
+        synchronized (this) {
+            Request existing = waiting.get(request);
+            if (existing != null) {
+                coalescedCount++;
+                existing.count++;
+                existing.durationMillis = Math.max(existing.durationMillis, durationMillis);
+                if (priority.compareTo(existing.priority) > 0) {
+                    queue.remove(existing);
+                    existing.priority = priority;
+                    queue.add(existing);
+                }
+                return true;
+            }
+            if (queue.size() >= capacity && !evictFor(request)) {
+                droppedCount++;
+                return false;
+            }
+            request.sequence = sequence++;
+            queue.add(request);
+            waiting.put(request, request);
+            postDrain();
+        }
+        return true;
+    }
+
+    /** Makes room for the given request according to the drop policy, returning false if the request itself must be dropped. */
+    private boolean evictFor(Request request) {
+        Request victim = null;
+        for (Request candidate : queue) {
+            if (dropPolicy == DropPolicy.DROP_OLDEST) {
+                if (victim == null || candidate.sequence < victim.sequence)
+                    victim = candidate;
+            } else if (dropPolicy == DropPolicy.DROP_LOWEST_PRIORITY) {
+                if (victim == null || candidate.priority.compareTo(victim.priority) < 0
+                        || (candidate.priority == victim.priority && candidate.sequence < victim.sequence))
+                    victim = candidate;
+            }
+        }
+        if (victim == null || (dropPolicy == DropPolicy.DROP_LOWEST_PRIORITY && request.priority.compareTo(victim.priority) < 0))
+            return false;
+        queue.remove(victim);
+        waiting.remove(victim);
+        droppedCount++;
+        return true;
+    }
+
+    private void postDrain() {
+        if (!drainPosted) {
+            drainPosted = true;
+            SwingUtilities.invokeLater(this::drain);
+        }
+    }
+
+    /** Shows the waiting toasts allowed by the visible toasts limit and the display rate, on the Event Dispatch Thread. */
+    private void drain() {
+        while (true) {
+            Request request;
+            synchronized (this) {
+                drainPosted = false;
+                if (queue.isEmpty() || visible >= maxVisible)
+                    return;
+                long now = System.nanoTime();
+                long wait = lastShownAt + minIntervalNanos - now;
+                if (shownCount > 0 && wait > 0) {
+                    if (!drainScheduled) {
+                        drainScheduled = true;
+                        DefaultHolder.SCHEDULER.schedule(() -> {
+                            synchronized (this) {
+                                drainScheduled = false;
+                                postDrain();
+                            }
+                        }, wait, TimeUnit.NANOSECONDS);
+                    }
+                    return;
+                }
+                request = queue.poll();
+                waiting.remove(request);
+                visible++;
+                lastShownAt = now;
+                recordShown(now - request.requestedAt);
+            }
+            display(request);
+        }
+    }
+
+    private void display(Request request) {
+        Toast toast = acquire();
+        toast.reset(request.owner, request.count > 1 ? request.text + " \u00d7" + request.count : request.text);
+        toast.fadeIn();
+        DefaultHolder.SCHEDULER.schedule(() -> SwingUtilities.invokeLater(() -> toast.fadeOut(() -> hidden(toast))),
+                request.durationMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void hidden(Toast toast) {
+        release(toast);
+        synchronized (this) {
+            visible--;
+        }
+        drain();
+    }
+
+    private Toast acquire() {
+        acquiredCount++;
+        Toast toast = idle.pollFirst();
+        if (toast == null) {
+            toast = new Toast();
+            synchronized (this) {
+                windowsCreated++;
+            }
+        }
+        return toast;
+    }
+
+    private void release(Toast toast) {
+        if (idle.size() < poolSize && hasOtherWindows()) {
+            idle.addFirst(toast);
+            long acquiredBefore = acquiredCount;
+            DefaultHolder.SCHEDULER.schedule(() -> SwingUtilities.invokeLater(() -> disposeIdle(acquiredBefore)),
+                    IDLE_WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+        } else {
+            toast.dispose();
+        }
+    }
+
+    /** Disposes the pooled windows, unless a toast was shown since the last window was released. */
+    private void disposeIdle(long acquiredBefore) {
+        if (acquiredCount != acquiredBefore)
+            return;
+        for (Toast toast : idle)
+            toast.dispose();
+        idle.clear();
+    }
+
+    /** Checks if any window other than toasts is displayable, meaning the application may still show toasts. */
+    private static boolean hasOtherWindows() {
+        for (Window window : Window.getWindows()) {
+            if (window.isDisplayable() && !(window instanceof Toast))
+                return true;
+        }
+        return false;
+    }
+
+    private void recordShown(long latencyNanos) {
+        shownCount++;
+        totalLatencyNanos += latencyNanos;
+        maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+    }
+
+    /**
+     * Gets how many toasts were shown by this manager.
+     * @return the number of toasts shown.
+     */
+    public synchronized long getShownCount() {
+        return shownCount;
+    }
+
+    /**
+     * Gets how many toasts were dropped because the queue was full.
+     * @return the number of dropped toasts.
+     */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Gets how many toasts were coalesced into an identical toast still waiting to be shown.
+     * @return the number of coalesced toasts.
+     */
+    public synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Gets how many toasts are currently waiting to be shown.
+     * @return the number of waiting toasts.
+     */
+    public synchronized int getWaitingCount() {
+        return queue.size();
+    }
+
+    /**
+     * Gets how many windows this manager had to create (the other toasts reused hidden windows).
+     * @return the number of toast windows created.
+     */
+    public synchronized long getWindowsCreated() {
+        return windowsCreated;
+    }
+
+    /**
+     * Gets the average time from a toast being requested until it starts being shown.
+     * @return the average latency in nanoseconds.
+     */
+    public synchronized long getAverageLatencyNanos() {
+        return shownCount == 0 ? 0 : totalLatencyNanos / shownCount;
+    }
+
+    /**
+     * Gets the longest time from a toast being requested until it starts being shown.
+     * @return the maximum latency in nanoseconds.
+     */
+    public synchronized long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    /**
+     * A toast waiting to be shown. Requests are equal when they have the same owner and text, for coalescing.
+     */
+    private static final class Request {
+        private final JFrame owner;
+        private final String text;
+        private final long requestedAt = System.nanoTime();
+        private long durationMillis;
+        private Priority priority;
+        private long sequence;
+        private int count = 1;
+
+        private Request(JFrame owner, String text, long durationMillis, Priority priority) {
+            this.owner = Objects.requireNonNull(owner, "Owner must not be null.");
+            this.text = String.valueOf(text);
+            this.durationMillis = durationMillis;
+            this.priority = Objects.requireNonNull(priority, "Priority must not be null.");
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(owner) * 31 + text.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Request))
+                return false;
+            Request other = (Request) obj;
+            return owner == other.owner && text.equals(other.text);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package lcm.java.swing;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+/**
+ * Benchmark of drawing images as loaded by ImageIO (3-byte BGR, indexed and non-premultiplied ARGB)
+ * against drawing their copies from {@link Images#toCompatibleImage(Image)}.
+ * Images are drawn both at their size and scaled (as {@code StretchIcon} does), into a back buffer of the compatible format.
+ * <P>
+ * Usage: {@code java [-Djava.awt.headless=true] -cp <classes>:<test-classes> lcm.java.swing.BlitBenchmark [size] [draws]}
+ * <br>
+ * With a display, the back buffer and compatible images follow the default screen; headless, they are TYPE_INT_ARGB_PRE.
+ */
+final class BlitBenchmark {
+
+    private static final int[] LOADED_TYPES = {
+            BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_BYTE_INDEXED, BufferedImage.TYPE_INT_ARGB };
+    private static final String[] TYPE_NAMES = { "3BYTE_BGR", "BYTE_INDEXED", "INT_ARGB" };
+
+    private BlitBenchmark() {}
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int draws = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        BufferedImage buffer = Images.toCompatibleImage(new BufferedImage(size * 2, size * 2, BufferedImage.TYPE_INT_ARGB));
+        for (int i = 0; i < LOADED_TYPES.length; i++) {
+            BufferedImage loaded = createImage(size, LOADED_TYPES[i]);
+            BufferedImage compatible = Images.toCompatibleImage(loaded);
+            report(TYPE_NAMES[i] + " as loaded", buffer, loaded, size, draws);
+            report(TYPE_NAMES[i] + " compatible", buffer, compatible, size, draws);
+            report(TYPE_NAMES[i] + " as loaded, scaled", buffer, loaded, size * 2, draws);
+            report(TYPE_NAMES[i] + " compatible, scaled", buffer, compatible, size * 2, draws);
+        }
+    }
+
+    private static BufferedImage createImage(int size, int type) {
+        BufferedImage image = new BufferedImage(size, size, type);
+        Random random = new Random(type);
+        Graphics2D g = image.createGraphics();
+        try {
+            for (int i = 0; i < 60; i++) {
+                g.setColor(new Color(random.nextInt(), type == BufferedImage.TYPE_INT_ARGB));
+                g.fillOval(random.nextInt(size), random.nextInt(size), size / 3, size / 3);
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private static void report(String name, BufferedImage buffer, Image image, int drawSize, int draws) {
+        Graphics2D g = buffer.createGraphics();
+        try {
+            for (int i = 0; i < draws; i++)
+                g.drawImage(image, 0, 0, drawSize, drawSize, null); // Warmup.
+            long start = System.nanoTime();
+            for (int i = 0; i < draws; i++)
+                g.drawImage(image, 0, 0, drawSize, drawSize, null);
+            long elapsed = System.nanoTime() - start;
+            System.out.println(String.format("%s: %d ns/draw", name, elapsed / draws));
+        } finally {
+            g.dispose();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package lcm.java.swing;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+
+import lcm.java.swing.CustomFont.Style;
+
+/**
+ * Headless benchmark of the painting of typical component trees (built with {@link Layouts}, image buttons and custom fonts).
+ * It prints the paint throughput and allocation of each tree, and how many pixels differ from its golden image
+ * (the comparison itself is checked on every build by {@link PaintGoldenTest}).
+ * <P>
+ * Usage: {@code java -Djava.awt.headless=true -cp <classes>:<test-classes> lcm.java.swing.PaintBenchmark [--write-golden] [rows] [paints] [goldenDir]}
+ * <br>
+ * With {@code --write-golden}, the rendered trees are saved as the golden images of the golden directory
+ * (by default, the test resources one) instead of being compared to them, to regenerate them after an intended change in painting.
+ * <P>
+ * Texts are painted with the DejaVu Sans Mono fonts bundled with the tests, so the images don't depend on the fonts
+ * installed on each machine.
+ */
+final class PaintBenchmark {
+
+    /** Golden images of the test resources, relative to the project directory. */
+    static final String GOLDEN_DIR = "src/test/resources/golden";
+
+    /** Rows of the trees compared against the committed golden images. */
+    static final int GOLDEN_ROWS = 20;
+
+    static final int WIDTH = 800;
+    static final int ROW_HEIGHT = 40;
+    static final int TOLERANCE = 2;
+
+    private static final String WRITE_GOLDEN = "--write-golden";
+    private static final String LABEL_FONT = "/fonts/DejaVuSansMono-Bold.ttf";
+    private static final String INPUT_FONT = "/fonts/DejaVuSansMono.ttf";
+
+    private PaintBenchmark() {}
+
+    public static void main(String[] args) throws IOException {
+        boolean writeGolden = args.length > 0 && WRITE_GOLDEN.equals(args[0]);
+        if (writeGolden)
+            args = Arrays.copyOfRange(args, 1, args.length);
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : GOLDEN_ROWS;
+        int paints = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        File goldenDir = new File(args.length > 2 ? args[2] : GOLDEN_DIR);
+        goldenDir.mkdirs();
+        File icon = writeIcon(new File("target"));
+
+        for (boolean fullPanes : new boolean[] { false, true }) {
+            String name = treeName(rows, fullPanes);
+            int height = rows * ROW_HEIGHT;
+            Component tree = createTree(rows, icon.getPath(), fullPanes);
+            File golden = new File(goldenDir, name + ".png");
+            BufferedImage rendered = OffscreenRenderer.render(tree, WIDTH, height);
+            String comparison;
+            if (writeGolden) {
+                OffscreenRenderer.writeGolden(rendered, golden);
+                comparison = "golden image written to " + golden;
+            } else if (golden.isFile()) {
+                comparison = OffscreenRenderer.compareToGolden(rendered, golden, TOLERANCE) + " pixels differ from golden image";
+            } else {
+                comparison = "no golden image (run with " + WRITE_GOLDEN + " to create it)";
+            }
+            OffscreenRenderer.PaintMeasurement measurement = OffscreenRenderer.measure(tree, WIDTH, height, paints);
+            System.out.println(name + ": " + measurement + ", " + comparison);
+        }
+    }
+
+    static String treeName(int rows, boolean fullPanes) {
+        return (fullPanes ? "full-panes-" : "panes-") + rows;
+    }
+
+    /** Writes the image of the buttons in the given directory, as image buttons are loaded from a path. */
+    static File writeIcon(File dir) throws IOException {
+        dir.mkdirs();
+        File icon = new File(dir, "paint-benchmark-icon.png");
+        ImageIO.write(createIconImage(), "png", icon);
+        return icon;
+    }
+
+    static JPanel createTree(int rows, String iconPath, boolean fullPanes) {
+        // Both faces are loaded as plain, so the bold one is the bundled bold face, not a synthesized or installed one.
+        CustomFont labelFont = CustomFont.loadFromResource(LABEL_FONT, Style.PLAIN, 16).join();
+        CustomFont inputFont = CustomFont.loadFromResource(INPUT_FONT, Style.PLAIN, 14).join();
+        List<Component> lines = new ArrayList<>();
+        float[] lineProportions = new float[rows];
+        for (int i = 0; i < rows; i++) {
+            JLabel label = new JLabel("Row " + i);
+            label.setFont(labelFont);
+            JTextField field = new JTextField("Value " + i);
+            field.setFont(inputFont);
+            JCheckBox checkbox = new JCheckBox("Enabled", i % 2 == 0);
+            checkbox.setFont(inputFont);
+            List<Component> cells = Arrays.asList(label, field, checkbox, Images.createImageButton(iconPath));
+            lines.add(fullPanes ? Layouts.fullHorizontalPane(cells, 2, 4, 2, 1) : Layouts.horizontalPane(cells, 2, 4, 2, 1));
+            lineProportions[i] = 1;
+        }
+        return fullPanes ? Layouts.fullVerticalPane(lines, lineProportions) : Layouts.verticalPane(lines, lineProportions);
+    }
+
+    private static BufferedImage createIconImage() {
+        BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(new Color(30, 120, 200));
+            g.fillOval(4, 4, 56, 56);
+            g.setColor(Color.WHITE);
+            g.fillRect(28, 14, 8, 36);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+}
@@ -0,0 +1,47 @@
+package lcm.java.swing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+
+import org.junit.Test;
+
+/**
+ * Checks that the trees of {@link PaintBenchmark} are still painted like their golden images,
+ * so painting optimizations can't silently change pixels.
+ * <P>
+ * Golden images are read from the test classes directory, so the diff images of failures are written there
+ * (next to the golden image, with the suffix ".diff.png") and not into the sources.
+ */
+public class PaintGoldenTest {
+
+    @Test
+    public void panesMatchGoldenImage() throws Exception {
+        assertMatchesGolden(false);
+    }
+
+    @Test
+    public void fullPanesMatchGoldenImage() throws Exception {
+        assertMatchesGolden(true);
+    }
+
+    private static void assertMatchesGolden(boolean fullPanes) throws Exception {
+        String name = PaintBenchmark.treeName(PaintBenchmark.GOLDEN_ROWS, fullPanes);
+        File golden = goldenFile(name);
+        File icon = PaintBenchmark.writeIcon(new File("target"));
+        int differences = OffscreenRenderer.compareToGolden(
+                OffscreenRenderer.render(PaintBenchmark.createTree(PaintBenchmark.GOLDEN_ROWS, icon.getPath(), fullPanes),
+                        PaintBenchmark.WIDTH, PaintBenchmark.GOLDEN_ROWS * PaintBenchmark.ROW_HEIGHT),
+                golden, PaintBenchmark.TOLERANCE);
+        assertEquals("Pixels differing from " + golden, 0, differences);
+    }
+
+    private static File goldenFile(String name) throws URISyntaxException {
+        URL resource = PaintGoldenTest.class.getResource("/golden/" + name + ".png");
+        assertNotNull("Golden image missing (run PaintBenchmark --write-golden to create it): " + name, resource);
+        return new File(resource.toURI());
+    }
+}
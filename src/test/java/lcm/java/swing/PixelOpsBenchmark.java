@@ -0,0 +1,117 @@
+package lcm.java.swing;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import javax.swing.GrayFilter;
+
+/**
+ * Headless benchmark of the pixel operations of {@link Images} against their {@link Graphics2D} equivalents
+ * (composites for tinting and transparency, {@link GrayFilter} for graying out, and getRGB/setRGB for recoloring).
+ * It prints the time and allocation of each operation, for icon sized and big images.
+ * <P>
+ * Usage: {@code java -Djava.awt.headless=true -cp <classes>:<test-classes> lcm.java.swing.PixelOpsBenchmark [iterations]}
+ */
+final class PixelOpsBenchmark {
+
+    private static final int[] SIZES = { 64, 512, 2048 };
+    private static final Color TINT = new Color(30, 120, 200);
+
+    private PixelOpsBenchmark() {}
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        for (int size : SIZES) {
+            BufferedImage image = createImage(size);
+            int runs = Math.max(3, iterations * 64 * 64 / (size * size) * 16);
+            report("tint " + size, runs, () -> Images.tint(image, TINT, 0.5f));
+            report("tint Graphics2D " + size, runs, () -> tintWithGraphics(image, TINT, 0.5f));
+            report("grayOut " + size, runs, () -> Images.grayOut(image));
+            report("grayOut GrayFilter " + size, runs, () -> Images.toIntArgb(GrayFilter.createDisabledImage(image)));
+            report("multiplyAlpha " + size, runs, () -> Images.multiplyAlpha(image, 0.5f));
+            report("multiplyAlpha Graphics2D " + size, runs, () -> multiplyAlphaWithGraphics(image, 0.5f));
+            report("recolor " + size, runs, () -> Images.recolor(image, Color.WHITE, TINT));
+            report("recolor getRGB/setRGB " + size, runs, () -> recolorWithRgb(image, Color.WHITE, TINT));
+            BufferedImage target = Images.toIntArgb(image);
+            report("tintInPlace " + size, runs, () -> Images.tintInPlace(target, TINT, 0.01f));
+        }
+    }
+
+    private static BufferedImage tintWithGraphics(Image image, Color color, float strength) {
+        BufferedImage tinted = Images.toIntArgb(image);
+        Graphics2D g = tinted.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_ATOP, strength));
+            g.setColor(color);
+            g.fillRect(0, 0, tinted.getWidth(), tinted.getHeight());
+        } finally {
+            g.dispose();
+        }
+        return tinted;
+    }
+
+    private static BufferedImage multiplyAlphaWithGraphics(Image image, float alpha) {
+        BufferedImage translucent = new BufferedImage(image.getWidth(null), image.getHeight(null), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = translucent.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return translucent;
+    }
+
+    private static BufferedImage recolorWithRgb(Image image, Color from, Color to) {
+        BufferedImage recolored = Images.toIntArgb(image);
+        int fromRgb = from.getRGB() & 0xFFFFFF;
+        int toRgb = to.getRGB() & 0xFFFFFF;
+        for (int y = 0; y < recolored.getHeight(); y++) {
+            for (int x = 0; x < recolored.getWidth(); x++) {
+                int argb = recolored.getRGB(x, y);
+                if ((argb & 0xFFFFFF) == fromRgb)
+                    recolored.setRGB(x, y, (argb & 0xFF000000) | toRgb);
+            }
+        }
+        return recolored;
+    }
+
+    /** Creates a translucent image with random shapes, and some white pixels to be recolored. */
+    private static BufferedImage createImage(int size) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Random random = new Random(size);
+        Graphics2D g = image.createGraphics();
+        try {
+            for (int i = 0; i < 40; i++) {
+                g.setColor(i % 4 == 0 ? Color.WHITE : new Color(random.nextInt(), true));
+                g.fillOval(random.nextInt(size), random.nextInt(size), size / 4, size / 4);
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private static void report(String name, int runs, Supplier<BufferedImage> operation) {
+        for (int i = 0; i < runs; i++)
+            operation.get(); // Warmup.
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++)
+            operation.get();
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        System.out.println(String.format("%s: %d ns/op, %d bytes/op", name, elapsed / runs, allocated / runs));
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,30 @@
+package lcm.java.swing;
+
+/**
+ * Measures the cost of initializing the classes of this library, as done when an application first uses them.
+ * Class initialization only happens once per JVM, so each run must be a new JVM, and the classes are initialized
+ * in the given order (classes initialized by the previous ones are reported as almost free).
+ * It also works on headless environments, where no class should need a display to be initialized.
+ * <P>
+ * Usage: {@code java [-Djava.awt.headless=true] -cp <classes>:<test-classes> lcm.java.swing.StartupBenchmark [classSimpleName...]}
+ */
+final class StartupBenchmark {
+
+    private static final String[] DEFAULT_CLASSES = { "Images", "RelativeLayout", "Layouts", "CustomFont", "ComponentStyle", "SwingComponents" };
+
+    private StartupBenchmark() {}
+
+    public static void main(String[] args) throws ClassNotFoundException {
+        String[] classes = args.length > 0 ? args : DEFAULT_CLASSES;
+        ClassLoader loader = StartupBenchmark.class.getClassLoader();
+        long total = 0;
+        for (String name : classes) {
+            long start = System.nanoTime();
+            Class.forName(StartupBenchmark.class.getPackage().getName() + "." + name, true, loader);
+            long elapsed = System.nanoTime() - start;
+            total += elapsed;
+            System.out.println(String.format("%s: %.2f ms", name, elapsed / 1e6));
+        }
+        System.out.println(String.format("total: %.2f ms", total / 1e6));
+    }
+}
@@ -0,0 +1,88 @@
+package lcm.java.swing;
+
+import java.util.Random;
+
+import javax.swing.JLabel;
+
+import lcm.java.swing.CustomFont.Style;
+
+/**
+ * Headless benchmark of the text measurement of {@link TextMeasurer} and {@link MeasuredLabel}.
+ * It measures strings of mixed lengths and scripts (Latin, accented, CJK and Arabic), printing the time per measurement
+ * when every string is new (cache misses), when strings repeat from a working set (cache hits),
+ * and for the preferred size of plain and measured labels.
+ * <P>
+ * Usage: {@code java -Djava.awt.headless=true -cp <classes>:<test-classes> lcm.java.swing.TextMeasurerBenchmark [strings] [workingSet]}
+ */
+final class TextMeasurerBenchmark {
+
+    private static final String[] ALPHABETS = {
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ",
+            "\u00e1\u00e9\u00ed\u00f3\u00fa\u00e2\u00ea\u00f4\u00e3\u00f5\u00e7\u00e0\u00fc\u00c1\u00c9\u00cd\u00d3\u00da\u00c7 ",
+            "\u65e5\u672c\u8a9e\u4e2d\u6587\u6f22\u5b57\u6587\u5b57\u5217",
+            "\u0627\u0644\u0639\u0631\u0628\u064a\u0629 ",
+    };
+
+    private TextMeasurerBenchmark() {}
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int workingSet = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        CustomFont font = CustomFont.of("Arial", Style.PLAIN, 16);
+        Random random = new Random(42);
+
+        String[] unique = new String[count];
+        for (int i = 0; i < count; i++)
+            unique[i] = randomText(random, i);
+        String[] repeated = new String[count];
+        for (int i = 0; i < count; i++)
+            repeated[i] = unique[random.nextInt(Math.min(workingSet, count))];
+
+        TextMeasurer.clearCache();
+        report("unique strings (misses)", count, () -> {
+            for (String text : unique)
+                TextMeasurer.measure(font, text);
+        });
+        TextMeasurer.clearCache();
+        report("working set of " + workingSet + " (hits)", count, () -> {
+            for (String text : repeated)
+                TextMeasurer.measure(font, text);
+        });
+
+        JLabel label = new JLabel();
+        label.setFont(font);
+        report("JLabel preferred size", count, () -> {
+            for (String text : repeated) {
+                label.setText(text);
+                label.getPreferredSize();
+            }
+        });
+        MeasuredLabel measuredLabel = new MeasuredLabel();
+        measuredLabel.setFont(font);
+        report("MeasuredLabel preferred size", count, () -> {
+            for (String text : repeated) {
+                measuredLabel.setText(text);
+                measuredLabel.getPreferredSize();
+            }
+        });
+        System.out.println("cache hits: " + TextMeasurer.getCacheHits() + ", misses: " + TextMeasurer.getCacheMisses());
+    }
+
+    /** Creates a text of 1 to 80 characters, each string drawn from one of the alphabets. */
+    private static String randomText(Random random, int index) {
+        String alphabet = ALPHABETS[index % ALPHABETS.length];
+        int length = 1 + random.nextInt(80);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++)
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        return text.toString();
+    }
+
+    private static void report(String name, int count, Runnable task) {
+        task.run(); // Warmup.
+        long start = System.nanoTime();
+        task.run();
+        long elapsed = System.nanoTime() - start;
+        System.out.println(String.format("%s: %d ns/measurement", name, elapsed / count));
+    }
+}
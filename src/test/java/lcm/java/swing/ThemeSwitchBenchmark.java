@@ -0,0 +1,118 @@
+package lcm.java.swing;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Font;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.IntConsumer;
+
+import javax.swing.JCheckBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+
+/**
+ * Headless benchmark of switching the theme (font, background and foreground) of a tree of about 20,000 components
+ * with {@link ComponentStyle} against the way it was done before: {@link CustomFont#apply(boolean, Component...)} walking
+ * each child's subtree again, a separate walk for each color, and a {@link SwingComponents#refresh(Component)} of the tree.
+ * The time of each switch includes the flush of the coalesced refresh requested by {@link ComponentStyle}.
+ * <P>
+ * Headless, the components have no peers, so the revalidate and repaint requests queued by each setter stop
+ * as soon as no window is found, and the tree is never laid out. On a display, both ways of switching get their requests
+ * merged by the RepaintManager into one validation and one paint, so that cost (not measured here) is the same for both.
+ * <P>
+ * Usage: {@code java -Djava.awt.headless=true -cp <classes>:<test-classes> lcm.java.swing.ThemeSwitchBenchmark [switches]}
+ */
+final class ThemeSwitchBenchmark {
+
+    private static final CustomFont[] FONTS = {
+            CustomFont.of(Font.SANS_SERIF, CustomFont.Style.PLAIN, 14), CustomFont.of(Font.SANS_SERIF, CustomFont.Style.PLAIN, 18) };
+    private static final Color[] BACKGROUNDS = { Color.WHITE, Color.DARK_GRAY };
+    private static final Color[] FOREGROUNDS = { Color.BLACK, Color.LIGHT_GRAY };
+
+    private ThemeSwitchBenchmark() {}
+
+    public static void main(String[] args) throws InterruptedException, InvocationTargetException {
+        int switches = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        SwingUtilities.invokeAndWait(() -> {
+            JPanel root = createTree();
+            System.out.println("tree: " + SwingComponents.streamChildren(root).count() + " components");
+            // Each is run twice, and only the second run is reported, so class loading and warmup don't count.
+            for (int run = 0; run < 2; run++) {
+                measure(run, "separate walks", switches, theme -> switchSeparately(root, theme));
+                measure(run, "ComponentStyle", switches, theme -> new ComponentStyle()
+                        .font(FONTS[theme], true).background(BACKGROUNDS[theme]).foreground(FOREGROUNDS[theme]).apply(root));
+            }
+        });
+    }
+
+    /** The theme switch as it was done before {@link ComponentStyle}. */
+    private static void switchSeparately(JPanel root, int theme) {
+        applyFontRecursive(FONTS[theme], root);
+        SwingComponents.setBackgroundColor(root, BACKGROUNDS[theme]);
+        setForegroundRecursive(root, FOREGROUNDS[theme]);
+        SwingComponents.refresh(root);
+    }
+
+    /** {@link CustomFont#apply(boolean, Component...)} with force = true, as it was before {@link ComponentStyle}. */
+    private static void applyFontRecursive(CustomFont font, Component component) {
+        component.setFont(font);
+        if (component instanceof JCheckBox)
+            SwingComponents.scaleCheckBoxIcon((JCheckBox) component);
+        if (component instanceof Container) {
+            for (Component child : SwingComponents.getAllChildren((Container) component))
+                applyFontRecursive(font, child);
+        }
+    }
+
+    private static void setForegroundRecursive(Component component, Color color) {
+        component.setForeground(color);
+        if (component instanceof Container) {
+            for (Component child : ((Container) component).getComponents())
+                setForegroundRecursive(child, color);
+        }
+    }
+
+    /** 10 sections with 10 groups each, with 10 rows of 20 labels each (21,110 components, 4 levels of panels). */
+    private static JPanel createTree() {
+        JPanel root = new JPanel();
+        for (int i = 0; i < 10; i++) {
+            JPanel section = new JPanel();
+            for (int j = 0; j < 10; j++) {
+                JPanel group = new JPanel();
+                for (int k = 0; k < 10; k++) {
+                    JPanel row = new JPanel();
+                    for (int l = 0; l < 20; l++)
+                        row.add(new JLabel("Label " + l));
+                    group.add(row);
+                }
+                section.add(group);
+            }
+            root.add(section);
+        }
+        root.setSize(1920, 1080);
+        return root;
+    }
+
+    private static void measure(int run, String name, int switches, IntConsumer switchTheme) {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < switches; i++) {
+            switchTheme.accept(i % 2);
+            CoalescedRefresh.flush();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        if (run > 0) {
+            System.out.println(String.format("%s: %.1f ms/switch, %d KB/switch",
+                    name, elapsed / 1e6 / switches, allocated / 1024 / switches));
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,72 @@
+package lcm.java.swing;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+
+/**
+ * Benchmark of the toasts shown by {@link ToastManager}, comparing it with creating a new {@link Toast} window for each one.
+ * It prints the throughput (toasts shown per second) and the latency from each request until the toast is shown.
+ * It needs a display, as toasts are real windows (in CI, it runs under Xvfb). Once finished, the JVM exits by itself
+ * when the pooled windows are disposed. All windows are created on the Event Dispatch Thread, as Swing requires.
+ * <P>
+ * Usage: {@code java -cp <classes>:<test-classes> lcm.java.swing.ToastBenchmark [toasts] [durationMillis]}
+ */
+final class ToastBenchmark {
+
+    private ToastBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        int toasts = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long duration = args.length > 1 ? Long.parseLong(args[1]) : 50;
+        JFrame owner = createOnEdt(() -> {
+            JFrame frame = new JFrame("ToastBenchmark");
+            frame.setSize(800, 600);
+            frame.setVisible(true);
+            return frame;
+        });
+
+        long start = System.nanoTime();
+        for (int i = 0; i < toasts; i++) {
+            String message = "Toast " + i;
+            Toast toast = createOnEdt(() -> {
+                Toast created = new Toast(owner, message);
+                created.fadeIn();
+                return created;
+            });
+            SwingUtilities.invokeAndWait(toast::dispose);
+        }
+        report("new window per toast", toasts, System.nanoTime() - start, -1, -1);
+
+        // No queueing limits, so only the cost of showing toasts is measured.
+        ToastManager manager = new ToastManager(4).setCapacity(toasts).setMaxVisible(toasts).setMaxRate(1e9);
+        start = System.nanoTime();
+        for (int i = 0; i < toasts; i++) {
+            manager.show(owner, "Toast " + i, duration);
+            if (i % 100 == 99)
+                SwingUtilities.invokeAndWait(() -> {}); // Lets the event queue catch up, as a steady stream of toasts would.
+        }
+        while (manager.getShownCount() < toasts)
+            SwingUtilities.invokeAndWait(() -> {});
+        report("ToastManager (" + manager.getWindowsCreated() + " windows created)", toasts, System.nanoTime() - start,
+                manager.getAverageLatencyNanos(), manager.getMaxLatencyNanos());
+
+        Thread.sleep(duration + 1000); // Lets the last toasts fade out.
+        SwingUtilities.invokeAndWait(owner::dispose);
+    }
+
+    private static <T> T createOnEdt(Supplier<T> factory) throws InterruptedException, InvocationTargetException {
+        AtomicReference<T> created = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> created.set(factory.get()));
+        return created.get();
+    }
+
+    private static void report(String name, int toasts, long elapsedNanos, long averageLatencyNanos, long maxLatencyNanos) {
+        String latency = averageLatencyNanos < 0 ? ""
+                : String.format(", latency avg %.2f ms, max %.2f ms", averageLatencyNanos / 1e6, maxLatencyNanos / 1e6);
+        System.out.println(String.format("%s: %.1f toasts/s%s", name, toasts * 1e9 / elapsedNanos, latency));
+    }
+}
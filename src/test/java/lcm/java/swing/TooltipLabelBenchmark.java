@@ -0,0 +1,95 @@
+package lcm.java.swing;
+
+import java.awt.Cursor;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.UIManager;
+
+/**
+ * Headless benchmark of the creation of many tooltip labels with {@link Images#createTooltipLabel(String, int)}
+ * (sharing the icon from {@link IconProvider}) against the previous way of scaling the look and feel icon for each label.
+ * It prints the time and allocation for creating and painting the labels, and the heap retained by them.
+ * Allocation is counted on the calling thread only, so it misses the scaling done by the image loading threads
+ * (which shows on the retained heap).
+ * <P>
+ * Usage: {@code java -Djava.awt.headless=true -cp <classes>:<test-classes> lcm.java.swing.TooltipLabelBenchmark [labels] [size]}
+ */
+final class TooltipLabelBenchmark {
+
+    private TooltipLabelBenchmark() {}
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 24;
+        // Each is run twice, and only the second run is reported, so class loading doesn't count.
+        for (int run = 0; run < 2; run++) {
+            IconProvider.clear();
+            report(run, "scaled per label", count, size, i -> createScaledTooltipLabel("Tip " + i, size));
+            report(run, "shared icon", count, size, i -> Images.createTooltipLabel("Tip " + i, size));
+        }
+    }
+
+    /** Creates the label the way it was done before {@link IconProvider}, scaling the icon for each label. */
+    private static JLabel createScaledTooltipLabel(String tipText, int size) {
+        ImageIcon questionIcon = (ImageIcon) UIManager.getIcon("OptionPane.questionIcon");
+        JLabel questionLabel = new JLabel(new ImageIcon(questionIcon.getImage().getScaledInstance(size, size, Image.SCALE_SMOOTH)));
+        questionLabel.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+        questionLabel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                JOptionPane.showMessageDialog(null, tipText);
+            }
+        });
+        return questionLabel;
+    }
+
+    private static void report(int run, String name, int count, int size, IntFunction<JLabel> factory) {
+        List<JLabel> labels = new ArrayList<>(count);
+        long heapBefore = usedHeap();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++)
+            labels.add(factory.apply(i));
+        long created = System.nanoTime();
+        BufferedImage canvas = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = canvas.createGraphics();
+        try {
+            for (JLabel label : labels)
+                label.getIcon().paintIcon(label, g, 0, 0);
+        } finally {
+            g.dispose();
+        }
+        long painted = System.nanoTime();
+        long allocated = allocatedBytes() - allocatedBefore;
+        long retained = usedHeap() - heapBefore;
+        if (run > 0) {
+            System.out.println(String.format("%s: %d labels created in %.1f ms (%d us/label), painted in %.1f ms, "
+                    + "%d bytes allocated/label, %d bytes retained/label", name, count, (created - start) / 1e6,
+                    (created - start) / 1000 / count, (painted - created) / 1e6, allocated / count, retained / count));
+        }
+        labels.clear();
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,115 @@
+package lcm.java.swing;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.swing.JLabel;
+import javax.swing.JMenu;
+import javax.swing.JPanel;
+
+/**
+ * Headless benchmark of the component tree traversal of {@link SwingComponents} against the previous recursive one,
+ * which built a set at each level of the tree and merged it into its parent's set.
+ * It uses trees of about 50,000 components, one wide (3 levels) and one deep (200 nested panels),
+ * and prints the time and allocation of collecting all children, filtering them, and finding the one in the middle.
+ * <P>
+ * Usage: {@code java -Djava.awt.headless=true -cp <classes>:<test-classes> lcm.java.swing.TraversalBenchmark [runs]}
+ */
+final class TraversalBenchmark {
+
+    private static final String TARGET = "target";
+
+    private TraversalBenchmark() {}
+
+    public static void main(String[] args) {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        report("wide", createWideTree(), runs);
+        report("deep", createDeepTree(), runs);
+    }
+
+    private static void report(String shape, Container root, int runs) {
+        Predicate<Component> isTarget = c -> TARGET.equals(c.getName());
+        System.out.println(shape + " tree: " + SwingComponents.streamChildren(root).count() + " components");
+        measure(shape + " getAllChildren, recursive", runs, () -> getAllChildrenRecursive(root));
+        measure(shape + " getAllChildren, streamed", runs, () -> SwingComponents.getAllChildren(root));
+        measure(shape + " filterChildren, recursive", runs,
+                () -> getAllChildrenRecursive(root).stream().filter(isTarget).collect(Collectors.toSet()));
+        measure(shape + " filterChildren, streamed", runs, () -> SwingComponents.filterChildren(root, isTarget));
+        measure(shape + " find middle, recursive", runs,
+                () -> getAllChildrenRecursive(root).stream().filter(isTarget).findAny());
+        measure(shape + " find middle, findChild", runs, () -> SwingComponents.findChild(root, isTarget));
+    }
+
+    /** The traversal as it was done before {@link SwingComponents#streamChildren(Container)}. */
+    private static Set<Component> getAllChildrenRecursive(Container parent) {
+        Set<Component> children = new HashSet<>();
+        for (Component child : parent.getComponents()) {
+            children.add(child);
+            if (child instanceof Container)
+                children.addAll(getAllChildrenRecursive((Container) child));
+        }
+        if (parent instanceof JMenu)
+            children.addAll(getAllChildrenRecursive(((JMenu) parent).getPopupMenu()));
+        return children;
+    }
+
+    /** 50 panels with 10 panels each, with 100 labels each (50,550 components). */
+    private static Container createWideTree() {
+        JPanel root = new JPanel(null);
+        for (int i = 0; i < 50; i++) {
+            JPanel section = new JPanel(null);
+            for (int j = 0; j < 10; j++) {
+                JPanel group = new JPanel(null);
+                for (int k = 0; k < 100; k++)
+                    group.add(createLabel(i == 25 && j == 5 && k == 50));
+                section.add(group);
+            }
+            root.add(section);
+        }
+        return root;
+    }
+
+    /** 200 nested panels with 250 labels each (50,200 components). */
+    private static Container createDeepTree() {
+        JPanel root = new JPanel(null);
+        Container parent = root;
+        for (int i = 0; i < 200; i++) {
+            JPanel panel = new JPanel(null);
+            for (int k = 0; k < 250; k++)
+                panel.add(createLabel(i == 100 && k == 125));
+            parent.add(panel);
+            parent = panel;
+        }
+        return root;
+    }
+
+    private static Component createLabel(boolean target) {
+        JLabel label = new JLabel();
+        if (target)
+            label.setName(TARGET);
+        return label;
+    }
+
+    private static void measure(String name, int runs, Supplier<?> traversal) {
+        for (int i = 0; i < runs; i++)
+            traversal.get(); // Warmup.
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++)
+            traversal.get();
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+        System.out.println(String.format("%s: %.2f ms/op, %d KB/op", name, elapsed / 1e6 / runs, allocated / 1024 / runs));
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}